@@ -0,0 +1,25 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The converters log every model and path at INFO, which would dominate the
+ * measurements.
+ *
+ * @author MSANTOSH
+ *
+ */
+final class BenchmarkLogging {
+
+	/** held so the configured level is not lost when the logger is collected */
+	private static final Logger ROOT_LOGGER = Logger.getLogger("com.kicksolutions");
+
+	private BenchmarkLogging() {
+		super();
+	}
+
+	static void quiet() {
+		ROOT_LOGGER.setLevel(Level.WARNING);
+	}
+}
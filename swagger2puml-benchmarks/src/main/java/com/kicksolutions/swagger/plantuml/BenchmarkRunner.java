@@ -0,0 +1,27 @@
+package com.kicksolutions.swagger.plantuml;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, so every result reports the
+ * allocation rate next to the throughput. Accepts the usual JMH command line,
+ * e.g. {@code java -jar benchmarks.jar CodegenBenchmark -p size=1000}.
+ *
+ * @author MSANTOSH
+ *
+ */
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		Options options = new OptionsBuilder().parent(new CommandLineOptions(args)).addProfiler(GCProfiler.class)
+				.build();
+
+		new Runner(options).run();
+	}
+}
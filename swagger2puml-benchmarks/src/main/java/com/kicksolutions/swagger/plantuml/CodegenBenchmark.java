@@ -0,0 +1,105 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.output.NullWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mustachejava.Mustache;
+import com.kicksolutions.swagger.plantuml.SpecFixtures.Shape;
+import com.kicksolutions.swagger.plantuml.vo.ClassDiagram;
+import com.kicksolutions.swagger.plantuml.vo.ClassRelation;
+import com.kicksolutions.swagger.plantuml.vo.InterfaceDiagram;
+
+import io.swagger.models.Swagger;
+import io.swagger.parser.SwaggerParser;
+
+/**
+ * The conversion stages of {@link PlantUMLCodegen}, each measured on its own
+ * against a spec parsed once per trial. Every invocation converts with a new
+ * codegen, so its name cache, model index and allOf flattener start cold as
+ * in a real conversion instead of serving the previous invocation.
+ *
+ * @author MSANTOSH
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodegenBenchmark {
+
+	@Param({ "WIDE_MODELS", "DEEP_ALLOF", "MANY_TAGS" })
+	private Shape shape;
+
+	@Param({ "100", "1000" })
+	private int size;
+
+	private Swagger swagger;
+	private List<ClassDiagram> classDiagrams;
+	private List<InterfaceDiagram> interfaceDiagrams;
+	private Map<String, Object> templateModel;
+	private Mustache mustache;
+
+	@Setup
+	public void setUp() throws IOException {
+		BenchmarkLogging.quiet();
+
+		swagger = new SwaggerParser().parse(SpecFixtures.generate(shape, size));
+		PlantUMLCodegen codegen = newCodegen();
+
+		classDiagrams = codegen.processSwaggerModels(swagger);
+		interfaceDiagrams = codegen.processSwaggerPaths(swagger);
+		templateModel = codegen.preprocessSwagger(swagger);
+		mustache = TemplateRegistry.getInstance().getTemplate(null);
+	}
+
+	@Benchmark
+	public List<ClassDiagram> processSwaggerModels() {
+		return newCodegen().processSwaggerModels(swagger);
+	}
+
+	@Benchmark
+	public List<InterfaceDiagram> processSwaggerPaths() {
+		return newCodegen().processSwaggerPaths(swagger);
+	}
+
+	@Benchmark
+	public List<ClassRelation> relations() {
+		return newCodegen().getRelations(classDiagrams, interfaceDiagrams);
+	}
+
+	@Benchmark
+	public Writer templateEmission() throws IOException {
+		Writer writer = mustache.execute(new NullWriter(), templateModel);
+		writer.flush();
+		return writer;
+	}
+
+	@Benchmark
+	public void streamingGeneration() throws IOException, IllegalAccessException {
+		PlantUMLCodegen streamingCodegen = newCodegen();
+		streamingCodegen.setStreamingEmitter(true);
+		streamingCodegen.generatePuml(new NullWriter());
+	}
+
+	private PlantUMLCodegen newCodegen() {
+		return new PlantUMLCodegen(swagger, null, false, true);
+	}
+}
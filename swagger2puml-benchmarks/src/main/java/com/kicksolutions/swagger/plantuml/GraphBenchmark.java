@@ -0,0 +1,89 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kicksolutions.swagger.plantuml.SpecFixtures.Shape;
+import com.kicksolutions.swagger.plantuml.vo.ClassDiagram;
+import com.kicksolutions.swagger.plantuml.vo.ClassRelation;
+import com.kicksolutions.swagger.plantuml.vo.InterfaceDiagram;
+
+import io.swagger.models.Swagger;
+import io.swagger.parser.SwaggerParser;
+
+/**
+ * Building a {@link RelationGraph} from the relations of a spec converted once
+ * per trial, and the analyses run on it.
+ *
+ * @author MSANTOSH
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GraphBenchmark {
+
+	@Param({ "WIDE_MODELS", "MANY_TAGS" })
+	private Shape shape;
+
+	@Param({ "1000", "10000" })
+	private int size;
+
+	private List<ClassDiagram> classDiagrams;
+	private List<InterfaceDiagram> interfaceDiagrams;
+	private List<ClassRelation> relations;
+	private RelationGraph graph;
+
+	@Setup
+	public void setUp() {
+		BenchmarkLogging.quiet();
+
+		Swagger swagger = new SwaggerParser().parse(SpecFixtures.generate(shape, size));
+		PlantUMLCodegen codegen = new PlantUMLCodegen(swagger, null, false, true);
+
+		classDiagrams = codegen.processSwaggerModels(swagger);
+		interfaceDiagrams = codegen.processSwaggerPaths(swagger);
+		relations = codegen.getRelations(classDiagrams, interfaceDiagrams);
+		graph = new RelationGraph(classDiagrams, interfaceDiagrams, relations);
+	}
+
+	@Benchmark
+	public RelationGraph build() {
+		return new RelationGraph(classDiagrams, interfaceDiagrams, relations);
+	}
+
+	@Benchmark
+	public int[] distances() {
+		return graph.getDistances(0);
+	}
+
+	@Benchmark
+	public List<int[]> components() {
+		return graph.getComponents();
+	}
+
+	@Benchmark
+	public List<int[]> stronglyConnectedComponents() {
+		return graph.getStronglyConnectedComponents();
+	}
+
+	@Benchmark
+	public RelationGraph.DegreeStats degreeStats() {
+		return graph.getDegreeStats();
+	}
+}
@@ -0,0 +1,54 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kicksolutions.swagger.plantuml.SpecFixtures.Shape;
+
+import io.swagger.models.Swagger;
+import io.swagger.parser.SwaggerParser;
+
+/**
+ * Parsing of the spec text into the Swagger model.
+ *
+ * @author MSANTOSH
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+
+	@Param({ "WIDE_MODELS", "DEEP_ALLOF", "MANY_TAGS" })
+	private Shape shape;
+
+	@Param({ "100", "1000" })
+	private int size;
+
+	private String spec;
+
+	@Setup
+	public void setUp() {
+		BenchmarkLogging.quiet();
+		spec = SpecFixtures.generate(shape, size);
+	}
+
+	@Benchmark
+	public Swagger parse() {
+		return new SwaggerParser().parse(spec);
+	}
+}
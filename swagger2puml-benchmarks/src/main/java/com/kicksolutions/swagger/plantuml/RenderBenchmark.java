@@ -0,0 +1,63 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.kicksolutions.swagger.plantuml.SpecFixtures.Shape;
+
+import io.swagger.parser.SwaggerParser;
+
+/**
+ * SVG rendering of generated PUML. Layout runs in Graphviz, so results depend
+ * on the dot executable found through GRAPHVIZ_DOT.
+ *
+ * @author MSANTOSH
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class RenderBenchmark {
+
+	@Param({ "WIDE_MODELS", "DEEP_ALLOF", "MANY_TAGS" })
+	private Shape shape;
+
+	@Param({ "10", "100" })
+	private int size;
+
+	private String pumlSource;
+	private PlantUMLRenderer renderer;
+
+	@Setup
+	public void setUp() throws IOException, IllegalAccessException {
+		BenchmarkLogging.quiet();
+
+		StringWriter puml = new StringWriter();
+		new PlantUMLCodegen(new SwaggerParser().parse(SpecFixtures.generate(shape, size)), null, false, true)
+				.generatePuml(puml);
+		pumlSource = puml.toString();
+		renderer = new PlantUMLRenderer();
+	}
+
+	@Benchmark
+	public void renderSvg() throws IOException {
+		renderer.render(pumlSource, new NullOutputStream());
+	}
+}
@@ -0,0 +1,68 @@
+package com.kicksolutions.swagger.plantuml;
+
+import com.kicksolutions.swagger.SwaggerSpecGenerator;
+
+/**
+ * Builds Swagger 2.0 documents of a given shape and size for the benchmarks.
+ *
+ * @author MSANTOSH
+ *
+ */
+public final class SpecFixtures {
+
+	/**
+	 * Spec shapes stressing different parts of the conversion.
+	 */
+	public enum Shape {
+		/** many models with many properties and references between them */
+		WIDE_MODELS,
+		/** models inheriting from each other through long allOf chains */
+		DEEP_ALLOF,
+		/** many paths spread over many tags */
+		MANY_TAGS
+	}
+
+	private static final long SEED = 42;
+
+	private SpecFixtures() {
+		super();
+	}
+
+	/**
+	 *
+	 * @param shape
+	 * @param size
+	 *            number of definitions, and of paths for {@link Shape#MANY_TAGS}
+	 * @return spec as YAML
+	 */
+	public static String generate(Shape shape, int size) {
+		SwaggerSpecGenerator generator = new SwaggerSpecGenerator();
+		generator.setSeed(SEED);
+		generator.setDefinitions(size);
+
+		switch (shape) {
+		case WIDE_MODELS:
+			generator.setPropertiesPerModel(30);
+			generator.setRefFanOut(3);
+			generator.setEnumSize(8);
+			generator.setPaths(size / 10);
+			generator.setTags(size / 100 + 1);
+			break;
+		case DEEP_ALLOF:
+			generator.setPropertiesPerModel(5);
+			generator.setAllOfDepth(8);
+			generator.setPaths(size / 10);
+			generator.setTags(size / 100 + 1);
+			break;
+		case MANY_TAGS:
+		default:
+			generator.setDefinitions(size / 4 + 1);
+			generator.setPaths(size);
+			generator.setOperationsPerPath(3);
+			generator.setTags(size / 2 + 1);
+			break;
+		}
+
+		return generator.generate();
+	}
+}
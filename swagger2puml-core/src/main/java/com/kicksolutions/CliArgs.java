@@ -18,9 +18,10 @@ public class CliArgs {
         this.args = arguments;
         parsedCliArguments.clear();
             
+        // every option takes a value, which may itself start with "-", like "-" for a standard stream
         for(int i=0; i < args.length; i++) {
-            if(args[i].startsWith("-") ){
-            	parsedCliArguments.put(args[i], args[i+1]);
+            if(args[i].startsWith("-") && i + 1 < args.length){
+            	parsedCliArguments.put(args[i], args[++i]);
             }
         }
     }
@@ -1,11 +1,33 @@
 package com.kicksolutions.swagger;
 
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.EnumUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import com.kicksolutions.CliArgs;
+import com.kicksolutions.swagger.plantuml.BuildManifest;
+import com.kicksolutions.swagger.plantuml.DiagramFocus;
+import com.kicksolutions.swagger.plantuml.OutputFormat;
+import com.kicksolutions.swagger.plantuml.PartitionMode;
+import com.kicksolutions.swagger.plantuml.PlantUMLBatchGenerator;
+import com.kicksolutions.swagger.plantuml.PlantUMLCodegen;
 import com.kicksolutions.swagger.plantuml.PlantUMLGenerator;
+import com.kicksolutions.swagger.plantuml.PlantUMLServer;
+import com.kicksolutions.swagger.plantuml.PlantUMLWatcher;
+import com.kicksolutions.swagger.plantuml.RunReport;
+import com.kicksolutions.swagger.plantuml.vo.BatchResult;
 
 /**
  * MSANTOSH
@@ -14,14 +36,33 @@ import com.kicksolutions.swagger.plantuml.PlantUMLGenerator;
 public class Swagger2PlantUML 
 {
 	private static final Logger LOGGER = Logger.getLogger(Swagger2PlantUML.class.getName());
+	private static final String STANDARD_STREAM = "-";
 	private static final String USAGE = new StringBuilder()
 			.append(" Usage: ")
 			.append(Swagger2PlantUML.class.getName()).append(" <options> \n")
-			.append(" -i <spec file> ")
-			.append(" -o <output directory> ")
+			.append(" -i <spec file, - for standard input> ")
+			.append(" -batch <spec directory, glob or manifest file> (instead of -i) ")
+			.append(" -threads <number of specs converted in parallel with -batch>; Default=available processors ")
+			.append(" -parallelism <threads converting the models and operations of a spec>; Default=available processors ")
+			.append(" -o <output directory, - for standard output> ")
+			.append(" -format puml/svg, format of the diagram streamed when -i or -o is -, or when both are missing; Default=puml ")
 			.append(" -generateDefinitionModelOnly true/false; Default=false ")
 			.append(" -includeCardinality true/false; Default=true ")
-			.append(" -generateSvg true/false; Default=true ").toString();
+			.append(" -generateSvg true/false; Default=true ")
+			.append(" -streamPuml true/false; Default=false ")
+			.append(" -template <mustache template file>; Default=bundled puml.mustache ")
+			.append(" -partition tag/component/size, splits the diagram into partitions linked from swagger.puml; Default=single diagram ")
+			.append(" -maxNodes <most models and interfaces in a partition>; Default=").append(PlantUMLCodegen.DEFAULT_MAX_NODES).append(" ")
+			.append(" -focusModel <comma separated definitions>, -focusTag <comma separated tags>, -paths <comma separated path globs like /user/**>, ")
+			.append("converts only what is reachable from them ")
+			.append(" -focusDepth <most $refs followed from the focus>; Default=no limit ")
+			.append(" -incremental true/false, skip specs unchanged since the last run; Default=false ")
+			.append(" -report json, writes the time, CPU, allocations and sizes of every conversion phase to <output directory>/")
+			.append(RunReport.REPORT_FILE_NAME).append(" ")
+			.append(" -watch true/false, regenerate whenever the spec or a file it references changes; Default=false ")
+			.append(" -server <port> (instead of -i/-o) serves POST /puml, POST /svg and GET /health ")
+			.append(" -host <address to listen on with -server>; Default=127.0.0.1 ")
+			.append(" -maxConcurrent <conversions served in parallel with -server>; Default=available processors ").toString();
 	
 	public Swagger2PlantUML() {
 		super();
@@ -46,16 +87,98 @@ public class Swagger2PlantUML
     	
     	CliArgs cliArgs = new CliArgs(args);
     	String specFile = cliArgs.getArgumentValue("-i", "");
+    	String batch = cliArgs.getArgumentValue("-batch", "");
     	String output = cliArgs.getArgumentValue("-o","");
     	boolean generateDefinitionModelOnly = Boolean.parseBoolean(cliArgs.getArgumentValue("-generateDefinitionModelOnly","false"));
     	boolean includeCardinality = Boolean.parseBoolean(cliArgs.getArgumentValue("-includeCardinality","true"));
     	boolean generateSvg = Boolean.parseBoolean(cliArgs.getArgumentValue("-generateSvg", "true"));
+    	String format = cliArgs.getArgumentValue("-format", "");
+    	boolean server = cliArgs.isArgumentPresent("-server");
+    	// without -i and -o, -format alone cannot be mistaken for a conversion into a directory
+    	boolean stream = !server && StringUtils.isEmpty(batch)
+    			&& (STANDARD_STREAM.equals(specFile) || STANDARD_STREAM.equals(output)
+    					|| (StringUtils.isEmpty(specFile) && StringUtils.isEmpty(output) && StringUtils.isNotEmpty(format)));
+    	if(!stream && StringUtils.isNotEmpty(format)){
+    		LOGGER.warning("-format only applies when streaming with -i - or -o -, it is ignored");
+    	}
+    	OutputFormat outputFormat = EnumUtils.getEnum(OutputFormat.class, 
+    			StringUtils.defaultIfEmpty(format, "puml").toUpperCase(Locale.ENGLISH));
+    	
+    	PlantUMLGenerator generator = new PlantUMLGenerator();
+    	generator.setStreamingEmitter(Boolean.parseBoolean(cliArgs.getArgumentValue("-streamPuml", "false")));
+    	generator.setTemplatePath(cliArgs.getArgumentValue("-template", null));
+    	generator.setParallelism(Integer.parseInt(cliArgs.getArgumentValue("-parallelism", 
+    			String.valueOf(Runtime.getRuntime().availableProcessors()))));
     	
-    	if(StringUtils.isNotEmpty(specFile) && StringUtils.isNotEmpty(output)){
-    		process(specFile, output,generateDefinitionModelOnly,includeCardinality,generateSvg);
+    	DiagramFocus focus = new DiagramFocus()
+    			.addModels(cliArgs.getArgumentValue("-focusModel", null))
+    			.addTags(cliArgs.getArgumentValue("-focusTag", null))
+    			.addPaths(cliArgs.getArgumentValue("-paths", null));
+    	focus.setDepth(Integer.parseInt(cliArgs.getArgumentValue("-focusDepth", "-1")));
+    	if(!focus.isEmpty()){
+    		generator.setFocus(focus);
     	}
-    	else{
-    		LOGGER.severe(USAGE);
+    	
+    	String partition = cliArgs.getArgumentValue("-partition", "");
+    	if(StringUtils.isNotEmpty(partition)){
+    		generator.setPartitioning(PartitionMode.valueOf(partition.toUpperCase(Locale.ENGLISH)), 
+    				Integer.parseInt(cliArgs.getArgumentValue("-maxNodes", String.valueOf(PlantUMLCodegen.DEFAULT_MAX_NODES))));
+    	}
+    	
+    	boolean incremental = Boolean.parseBoolean(cliArgs.getArgumentValue("-incremental", "false"));
+    	BuildManifest manifest = null;
+    	if(incremental && StringUtils.isNotEmpty(output) && !stream && !server){
+    		manifest = BuildManifest.load(new File(output));
+    		generator.setManifest(manifest);
+    	}
+    	
+    	String reportFormat = cliArgs.getArgumentValue("-report", "");
+    	RunReport runReport = null;
+    	if((stream || server) && (incremental || StringUtils.isNotEmpty(reportFormat))){
+    		LOGGER.warning("-incremental and -report only apply to -i and -batch conversions into an output directory, they are ignored");
+    	}
+    	else if("json".equalsIgnoreCase(reportFormat) && StringUtils.isNotEmpty(output)){
+    		runReport = new RunReport();
+    		generator.setRunReport(runReport);
+    	}
+    	else if(StringUtils.isNotEmpty(reportFormat)){
+    		LOGGER.warning("Unsupported report format " + reportFormat + ", supported format is json");
+    	}
+    	
+    	try{
+    		if(server){
+    			int maxConcurrent = Integer.parseInt(cliArgs.getArgumentValue("-maxConcurrent", 
+    					String.valueOf(Runtime.getRuntime().availableProcessors())));
+    			serve(generator, cliArgs.getArgumentValue("-host", "127.0.0.1"), 
+    					Integer.parseInt(cliArgs.getArgumentValue("-server", "0")), maxConcurrent);
+    		}
+    		else if(StringUtils.isNotEmpty(batch) && StringUtils.isNotEmpty(output)){
+    			int threads = Integer.parseInt(cliArgs.getArgumentValue("-threads", 
+    					String.valueOf(Runtime.getRuntime().availableProcessors())));
+    			processBatch(generator, batch, output, threads, generateDefinitionModelOnly, includeCardinality, generateSvg);
+    		}
+    		else if(stream && outputFormat == null){
+    			LOGGER.severe("Unsupported format " + format + ", supported formats are puml and svg");
+    			LOGGER.severe(USAGE);
+    		}
+    		else if(stream){
+    			stream(generator, StringUtils.defaultIfEmpty(specFile, STANDARD_STREAM),
+    					StringUtils.defaultIfEmpty(output, STANDARD_STREAM), outputFormat, generateDefinitionModelOnly, includeCardinality);
+    		}
+    		else if(StringUtils.isNotEmpty(specFile) && StringUtils.isNotEmpty(output)
+    				&& Boolean.parseBoolean(cliArgs.getArgumentValue("-watch", "false"))){
+    			watch(generator, specFile, output, generateDefinitionModelOnly, includeCardinality, generateSvg);
+    		}
+    		else if(StringUtils.isNotEmpty(specFile) && StringUtils.isNotEmpty(output)){
+    			process(generator, specFile, output,generateDefinitionModelOnly,includeCardinality,generateSvg);
+    		}
+    		else{
+    			LOGGER.severe(USAGE);
+    		}
+    	}
+    	finally{
+    		saveManifest(manifest);
+    		writeReport(runReport, output);
     	}
     	
     	LOGGER.exiting(LOGGER.getName(), "init");
@@ -63,11 +186,154 @@ public class Swagger2PlantUML
     
     /**
      * 
+     * @param generator
      * @param specFile
      * @param output
      */
-    private void process(String specFile,String output,boolean generateDefinitionModelOnly,boolean includeCardinality,boolean generateSvg){
-    	PlantUMLGenerator generator = new PlantUMLGenerator();
+    private void process(PlantUMLGenerator generator,String specFile,String output,boolean generateDefinitionModelOnly,boolean includeCardinality,boolean generateSvg){
     	generator.transformSwagger2Puml(specFile, output, generateDefinitionModelOnly, includeCardinality, generateSvg);
     }    
+
+    /**
+     * Standard input and output are never closed, so the diagram can be piped
+     * on.
+     * 
+     * @param generator
+     * @param specFile
+     *            spec file, - for standard input
+     * @param output
+     *            directory receiving swagger.puml or swagger.svg, - for standard output
+     * @param outputFormat
+     */
+    private void stream(PlantUMLGenerator generator,String specFile,String output,OutputFormat outputFormat,boolean generateDefinitionModelOnly,boolean includeCardinality){
+    	InputStream input = null;
+    	OutputStream outputStream = null;
+    	
+    	try{
+    		if(STANDARD_STREAM.equals(output)){
+    			outputStream = System.out;
+    		}
+    		else if(new File(output).isDirectory()){
+    			outputStream = new FileOutputStream(new File(output, "swagger." + outputFormat.name().toLowerCase(Locale.ENGLISH)));
+    		}
+    		else{
+    			throw new RuntimeException("Ouput Location is not valid");
+    		}
+    		
+    		input = STANDARD_STREAM.equals(specFile) ? System.in : new FileInputStream(specFile);
+    		generator.transformSwagger2Puml(input, new BufferedOutputStream(outputStream), outputFormat, generateDefinitionModelOnly, includeCardinality);
+    	}
+    	catch(IOException e){
+    		LOGGER.log(Level.SEVERE, e.getMessage(), e);
+    		throw new RuntimeException(e);
+    	}
+    	finally{
+    		if(input != System.in){
+    			IOUtils.closeQuietly(input);
+    		}
+    		if(outputStream != System.out){
+    			IOUtils.closeQuietly(outputStream);
+    		}
+    	}
+    }
+
+    /**
+     * 
+     * @param generator
+     * @param batch
+     * @param output
+     * @param threads
+     */
+    private void processBatch(PlantUMLGenerator generator,String batch,String output,int threads,boolean generateDefinitionModelOnly,boolean includeCardinality,boolean generateSvg){
+    	PlantUMLBatchGenerator batchGenerator = new PlantUMLBatchGenerator(generator, threads);
+    	List<BatchResult> results = batchGenerator.transformSwagger2Puml(batch, output, generateDefinitionModelOnly, includeCardinality, generateSvg);
+    	
+    	int failures = 0;
+    	for(BatchResult result: results){
+    		if(!result.isSuccess()){
+    			failures++;
+    		}
+    	}
+    	
+    	if(failures > 0){
+    		throw new RuntimeException(failures + " of " + results.size() + " Specs failed to convert");
+    	}
+    }
+
+    /**
+     * 
+     * @param generator
+     * @param specFile
+     * @param output
+     */
+    private void watch(PlantUMLGenerator generator,String specFile,String output,boolean generateDefinitionModelOnly,boolean includeCardinality,boolean generateSvg){
+    	PlantUMLWatcher watcher = new PlantUMLWatcher(generator, specFile, output, generateDefinitionModelOnly, includeCardinality, generateSvg);
+    	
+    	try{
+    		watcher.watch();
+    	}
+    	catch(IOException e){
+    		LOGGER.log(Level.SEVERE, e.getMessage(), e);
+    		throw new RuntimeException(e);
+    	}
+    }
+    
+    /**
+     * 
+     * @param generator
+     * @param host
+     * @param port
+     * @param maxConcurrent
+     */
+    private void serve(PlantUMLGenerator generator,String host,int port,int maxConcurrent){
+    	final PlantUMLServer server = new PlantUMLServer(generator, maxConcurrent);
+    	
+    	try{
+    		server.start(host, port);
+    	}
+    	catch(IOException e){
+    		LOGGER.log(Level.SEVERE, e.getMessage(), e);
+    		throw new RuntimeException(e);
+    	}
+    	
+    	Runtime.getRuntime().addShutdownHook(new Thread(){
+    		@Override
+    		public void run(){
+    			server.stop(1);
+    		}
+    	});
+    }
+    
+    /**
+     * 
+     * @param runReport
+     * @param output
+     */
+    private void writeReport(RunReport runReport,String output){
+    	if(runReport != null){
+    		File reportFile = new File(output, RunReport.REPORT_FILE_NAME);
+    		try{
+    			runReport.writeJson(reportFile);
+    			LOGGER.info("Written Report @ " + reportFile.getAbsolutePath());
+    		}
+    		catch(IOException e){
+    			LOGGER.log(Level.SEVERE, "Unable to write report " + reportFile, e);
+    		}
+    	}
+    }
+    
+    /**
+     * 
+     * @param manifest
+     */
+    private void saveManifest(BuildManifest manifest){
+    	if(manifest != null){
+    		try{
+    			manifest.save();
+    		}
+    		catch(IOException e){
+    			LOGGER.log(Level.SEVERE, "Unable to save build manifest", e);
+    		}
+    	}
+    }
 }
\ No newline at end of file
@@ -0,0 +1,406 @@
+package com.kicksolutions.swagger;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.kicksolutions.CliArgs;
+
+/**
+ * Generates synthetic Swagger 2.0 specs of a given size and shape, so scale
+ * tests can run against reproducible corpora instead of checked in files. The
+ * same seed and settings always produce the same document.
+ *
+ * <p>
+ * Definitions are named {@code Model0..ModelN}. Every model gets the configured
+ * number of properties, of which the first {@code refFanOut} reference other
+ * models. With an {@code allOfDepth} greater than zero, definitions form chains
+ * in which each model extends the previous one through {@code allOf}.
+ * </p>
+ *
+ * @author MSANTOSH
+ *
+ */
+public class SwaggerSpecGenerator {
+
+	private static final Logger LOGGER = Logger.getLogger(SwaggerSpecGenerator.class.getName());
+	private static final String USAGE = new StringBuilder()
+			.append(" Usage: ")
+			.append(SwaggerSpecGenerator.class.getName()).append(" <options> \n")
+			.append(" -o <spec file to write>; Default=standard output ")
+			.append(" -seed <random seed>; Default=42 ")
+			.append(" -definitions <number of models>; Default=100 ")
+			.append(" -properties <properties per model>; Default=10 ")
+			.append(" -refs <properties per model referencing other models>; Default=2 ")
+			.append(" -allOfDepth <length of allOf inheritance chains, 0 for none>; Default=0 ")
+			.append(" -enumSize <values of the enum property of each model, 0 for none>; Default=0 ")
+			.append(" -paths <number of paths>; Default=20 ")
+			.append(" -operations <operations per path, 1 to 5>; Default=2 ")
+			.append(" -tags <number of tags>; Default=5 ").toString();
+
+	private static final String[] HTTP_METHODS = { "get", "put", "post", "delete", "patch" };
+	private static final String[][] PROPERTY_TYPES = { { "string", null }, { "string", "date-time" },
+			{ "integer", "int32" }, { "integer", "int64" }, { "number", "double" }, { "boolean", null } };
+
+	private long seed = 42;
+	private int definitions = 100;
+	private int propertiesPerModel = 10;
+	private int refFanOut = 2;
+	private int allOfDepth;
+	private int enumSize;
+	private int paths = 20;
+	private int operationsPerPath = 2;
+	private int tags = 5;
+
+	public SwaggerSpecGenerator() {
+		super();
+	}
+
+	/**
+	 *
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		CliArgs cliArgs = new CliArgs(args);
+
+		SwaggerSpecGenerator generator = new SwaggerSpecGenerator();
+		try {
+			generator.setSeed(Long.parseLong(cliArgs.getArgumentValue("-seed", "42")));
+			generator.setDefinitions(Integer.parseInt(cliArgs.getArgumentValue("-definitions", "100")));
+			generator.setPropertiesPerModel(Integer.parseInt(cliArgs.getArgumentValue("-properties", "10")));
+			generator.setRefFanOut(Integer.parseInt(cliArgs.getArgumentValue("-refs", "2")));
+			generator.setAllOfDepth(Integer.parseInt(cliArgs.getArgumentValue("-allOfDepth", "0")));
+			generator.setEnumSize(Integer.parseInt(cliArgs.getArgumentValue("-enumSize", "0")));
+			generator.setPaths(Integer.parseInt(cliArgs.getArgumentValue("-paths", "20")));
+			generator.setOperationsPerPath(Integer.parseInt(cliArgs.getArgumentValue("-operations", "2")));
+			generator.setTags(Integer.parseInt(cliArgs.getArgumentValue("-tags", "5")));
+		} catch (IllegalArgumentException e) {
+			LOGGER.severe(e.getMessage() + "\n" + USAGE);
+			return;
+		}
+
+		String output = cliArgs.getArgumentValue("-o", "");
+		try {
+			if (StringUtils.isEmpty(output)) {
+				Writer writer = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+				generator.generate(writer);
+				writer.flush();
+			} else {
+				Writer writer = new OutputStreamWriter(new FileOutputStream(new File(output)), StandardCharsets.UTF_8);
+				try {
+					generator.generate(writer);
+				} finally {
+					writer.close();
+				}
+				LOGGER.info("Generated " + output);
+			}
+		} catch (IOException e) {
+			LOGGER.log(Level.SEVERE, e.getMessage(), e);
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 *
+	 * @return the spec as YAML
+	 */
+	public String generate() {
+		StringWriter writer = new StringWriter(definitions * propertiesPerModel * 64 + paths * 512);
+
+		try {
+			generate(writer);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+
+		return writer.toString();
+	}
+
+	/**
+	 *
+	 * @param writer
+	 *            receives the spec as YAML
+	 * @throws IOException
+	 */
+	public void generate(Writer writer) throws IOException {
+		LOGGER.entering(LOGGER.getName(), "generate");
+
+		Random random = new Random(seed);
+
+		writer.write("swagger: '2.0'\n");
+		writer.write("info:\n");
+		writer.write("  title: Synthetic API " + seed + "\n");
+		writer.write("  description: Generated with " + definitions + " definitions and " + paths + " paths\n");
+		writer.write("  version: 1.0.0\n");
+		writer.write("host: api.example.com\n");
+		writer.write("basePath: /v1\n");
+
+		writeTags(writer);
+		writePaths(writer, random);
+		writeDefinitions(writer, random);
+
+		writer.flush();
+
+		LOGGER.exiting(LOGGER.getName(), "generate");
+	}
+
+	/**
+	 *
+	 * @param writer
+	 * @throws IOException
+	 */
+	private void writeTags(Writer writer) throws IOException {
+		if (tags > 0) {
+			writer.write("tags:\n");
+			for (int i = 0; i < tags; i++) {
+				writer.write("  - name: " + getTagName(i) + "\n");
+				writer.write("    description: Operations of group " + i + "\n");
+			}
+		}
+	}
+
+	/**
+	 *
+	 * @param writer
+	 * @param random
+	 * @throws IOException
+	 */
+	private void writePaths(Writer writer, Random random) throws IOException {
+		if (paths == 0) {
+			writer.write("paths: {}\n");
+			return;
+		}
+
+		writer.write("paths:\n");
+		for (int i = 0; i < paths; i++) {
+			writer.write("  /resource" + i + "/{id}:\n");
+
+			for (int o = 0; o < operationsPerPath; o++) {
+				String method = HTTP_METHODS[o];
+				boolean hasBody = "put".equals(method) || "post".equals(method) || "patch".equals(method);
+
+				writer.write("    " + method + ":\n");
+				if (tags > 0) {
+					writer.write("      tags:\n        - " + getTagName(random.nextInt(tags)) + "\n");
+				}
+				writer.write("      summary: " + StringUtils.capitalize(method) + " resource " + i + "\n");
+				writer.write("      operationId: " + method + "Resource" + i + "\n");
+				writer.write("      produces:\n        - application/json\n");
+				writer.write("      parameters:\n");
+				writer.write("        - name: id\n          in: path\n          required: true\n          type: string\n");
+				if (hasBody && definitions > 0) {
+					writer.write("        - in: body\n          name: body\n          required: true\n          schema:\n");
+					writer.write("            $ref: '#/definitions/" + getModelName(random.nextInt(definitions)) + "'\n");
+				}
+
+				writer.write("      responses:\n");
+				if (definitions > 0 && !"delete".equals(method)) {
+					writer.write("        '200':\n          description: successful operation\n          schema:\n");
+					if (random.nextInt(4) == 0) {
+						writer.write("            type: array\n            items:\n");
+						writer.write("              $ref: '#/definitions/" + getModelName(random.nextInt(definitions))
+								+ "'\n");
+					} else {
+						writer.write("            $ref: '#/definitions/" + getModelName(random.nextInt(definitions))
+								+ "'\n");
+					}
+					writer.write("        '404':\n          description: not found\n");
+					writer.write("        default:\n          description: unexpected error\n          schema:\n");
+					writer.write("            $ref: '#/definitions/" + getModelName(random.nextInt(definitions)) + "'\n");
+				} else {
+					writer.write("        '204':\n          description: successful operation\n");
+					writer.write("        '404':\n          description: not found\n");
+				}
+			}
+		}
+	}
+
+	/**
+	 *
+	 * @param writer
+	 * @param random
+	 * @throws IOException
+	 */
+	private void writeDefinitions(Writer writer, Random random) throws IOException {
+		if (definitions == 0) {
+			return;
+		}
+
+		writer.write("definitions:\n");
+		for (int i = 0; i < definitions; i++) {
+			writer.write("  " + getModelName(i) + ":\n");
+
+			if (allOfDepth > 0 && i % (allOfDepth + 1) != 0) {
+				writer.write("    allOf:\n");
+				writer.write("      - $ref: '#/definitions/" + getModelName(i - 1) + "'\n");
+				writer.write("      - type: object\n");
+				writeProperties(writer, random, i, "        ");
+			} else {
+				writer.write("    type: object\n");
+				writeProperties(writer, random, i, "    ");
+			}
+		}
+	}
+
+	/**
+	 *
+	 * @param writer
+	 * @param random
+	 * @param model
+	 * @param indent
+	 * @throws IOException
+	 */
+	private void writeProperties(Writer writer, Random random, int model, String indent) throws IOException {
+		int properties = propertiesPerModel + (enumSize > 0 ? 1 : 0);
+		if (properties == 0) {
+			return;
+		}
+
+		StringBuilder required = new StringBuilder();
+		writer.write(indent + "properties:\n");
+
+		for (int p = 0; p < propertiesPerModel; p++) {
+			String name = "property" + p;
+			writer.write(indent + "  " + name + ":\n");
+
+			if (p < refFanOut) {
+				String target = getModelName(random.nextInt(definitions));
+
+				if (random.nextBoolean()) {
+					writer.write(indent + "    $ref: '#/definitions/" + target + "'\n");
+				} else {
+					writer.write(indent + "    type: array\n" + indent + "    items:\n");
+					writer.write(indent + "      $ref: '#/definitions/" + target + "'\n");
+				}
+			} else {
+				String[] type = PROPERTY_TYPES[random.nextInt(PROPERTY_TYPES.length)];
+				writer.write(indent + "    type: " + type[0] + "\n");
+				if (type[1] != null) {
+					writer.write(indent + "    format: " + type[1] + "\n");
+				}
+			}
+
+			if (random.nextInt(3) == 0) {
+				required.append(indent).append("  - ").append(name).append('\n');
+			}
+		}
+
+		if (enumSize > 0) {
+			writer.write(indent + "  status:\n" + indent + "    type: string\n" + indent + "    enum:\n");
+			for (int e = 0; e < enumSize; e++) {
+				writer.write(indent + "      - STATUS_" + model + "_" + e + "\n");
+			}
+		}
+
+		if (required.length() > 0) {
+			writer.write(indent + "required:\n");
+			writer.write(required.toString());
+		}
+	}
+
+	private static String getModelName(int index) {
+		return "Model" + index;
+	}
+
+	private static String getTagName(int index) {
+		return "tag" + index;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	public int getDefinitions() {
+		return definitions;
+	}
+
+	public void setDefinitions(int definitions) {
+		this.definitions = requireNonNegative("definitions", definitions);
+	}
+
+	public int getPropertiesPerModel() {
+		return propertiesPerModel;
+	}
+
+	public void setPropertiesPerModel(int propertiesPerModel) {
+		this.propertiesPerModel = requireNonNegative("propertiesPerModel", propertiesPerModel);
+	}
+
+	public int getRefFanOut() {
+		return refFanOut;
+	}
+
+	/**
+	 *
+	 * @param refFanOut
+	 *            properties of each model referencing another model, capped at
+	 *            the number of properties per model
+	 */
+	public void setRefFanOut(int refFanOut) {
+		this.refFanOut = requireNonNegative("refFanOut", refFanOut);
+	}
+
+	public int getAllOfDepth() {
+		return allOfDepth;
+	}
+
+	public void setAllOfDepth(int allOfDepth) {
+		this.allOfDepth = requireNonNegative("allOfDepth", allOfDepth);
+	}
+
+	public int getEnumSize() {
+		return enumSize;
+	}
+
+	public void setEnumSize(int enumSize) {
+		this.enumSize = requireNonNegative("enumSize", enumSize);
+	}
+
+	public int getPaths() {
+		return paths;
+	}
+
+	public void setPaths(int paths) {
+		this.paths = requireNonNegative("paths", paths);
+	}
+
+	public int getOperationsPerPath() {
+		return operationsPerPath;
+	}
+
+	public void setOperationsPerPath(int operationsPerPath) {
+		if (operationsPerPath < 1 || operationsPerPath > HTTP_METHODS.length) {
+			throw new IllegalArgumentException(
+					"operationsPerPath must be between 1 and " + HTTP_METHODS.length + ": " + operationsPerPath);
+		}
+		this.operationsPerPath = operationsPerPath;
+	}
+
+	public int getTags() {
+		return tags;
+	}
+
+	public void setTags(int tags) {
+		this.tags = requireNonNegative("tags", tags);
+	}
+
+	private static int requireNonNegative(String name, int value) {
+		if (value < 0) {
+			throw new IllegalArgumentException(name + " must not be negative: " + value);
+		}
+		return value;
+	}
+}
@@ -0,0 +1,286 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Remembers which spec fingerprint produced the diagrams of each output
+ * directory, so unchanged specs can be skipped. The manifest lives in the
+ * output root as {@value #MANIFEST_FILE_NAME}. Lookups and updates are safe
+ * from concurrent batch workers; {@link #save()} replaces the file atomically.
+ *
+ * @author MSANTOSH
+ *
+ */
+public class BuildManifest {
+
+	private static final Logger LOGGER = Logger.getLogger(BuildManifest.class.getName());
+
+	public static final String MANIFEST_FILE_NAME = ".swagger2puml.manifest";
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+	private static final String ENTRY_SEPARATOR = "|";
+	private static final String OUTPUT_SEPARATOR = ":";
+
+	private final File directory;
+	private final File manifestFile;
+	private final ConcurrentMap<String, String> entries = new ConcurrentHashMap<String, String>();
+	private volatile boolean dirty;
+
+	/**
+	 *
+	 * @param directory
+	 *            output root the manifest belongs to
+	 */
+	private BuildManifest(File directory) {
+		this.directory = directory.getAbsoluteFile();
+		this.manifestFile = new File(this.directory, MANIFEST_FILE_NAME);
+	}
+
+	/**
+	 * Loads the manifest of the output root, or starts an empty one.
+	 *
+	 * @param directory
+	 * @return
+	 */
+	public static BuildManifest load(File directory) {
+		BuildManifest manifest = new BuildManifest(directory);
+
+		if (manifest.manifestFile.isFile()) {
+			Properties properties = new Properties();
+
+			try {
+				InputStream inputStream = new FileInputStream(manifest.manifestFile);
+				try {
+					properties.load(inputStream);
+				} finally {
+					inputStream.close();
+				}
+			} catch (IOException e) {
+				LOGGER.log(Level.WARNING, "Ignoring unreadable manifest " + manifest.manifestFile, e);
+				properties.clear();
+			}
+
+			for (String key : properties.stringPropertyNames()) {
+				manifest.entries.put(key, properties.getProperty(key));
+			}
+		}
+
+		return manifest;
+	}
+
+	/**
+	 *
+	 * @param outputDirectory
+	 * @param fingerprint
+	 * @return true when the outputs were produced from the same fingerprint and
+	 *         are unchanged since
+	 */
+	public boolean isUpToDate(File outputDirectory, String fingerprint) {
+		String entry = entries.get(getKey(outputDirectory));
+
+		if (entry == null) {
+			return false;
+		}
+
+		String[] values = StringUtils.split(entry, ENTRY_SEPARATOR);
+		if (values.length == 0 || !values[0].equals(fingerprint)) {
+			return false;
+		}
+
+		for (int i = 1; i < values.length; i++) {
+			String[] output = StringUtils.split(values[i], OUTPUT_SEPARATOR);
+			File outputFile = new File(outputDirectory, output[0]);
+
+			if (output.length != 3 || !outputFile.isFile() || outputFile.length() != Long.parseLong(output[1])
+					|| outputFile.lastModified() != Long.parseLong(output[2])) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 *
+	 * @param outputDirectory
+	 * @param fingerprint
+	 * @param outputs
+	 *            generated files inside the output directory
+	 */
+	public void record(File outputDirectory, String fingerprint, List<File> outputs) {
+		StringBuilder entry = new StringBuilder(fingerprint);
+
+		for (File output : outputs) {
+			entry.append(ENTRY_SEPARATOR).append(output.getName()).append(OUTPUT_SEPARATOR).append(output.length())
+					.append(OUTPUT_SEPARATOR).append(output.lastModified());
+		}
+
+		entries.put(getKey(outputDirectory), entry.toString());
+		dirty = true;
+	}
+
+	/**
+	 * Writes the manifest next to its final location and moves it into place,
+	 * so readers never see a partially written file.
+	 *
+	 * @throws IOException
+	 */
+	public synchronized void save() throws IOException {
+		if (!dirty) {
+			return;
+		}
+		dirty = false;
+
+		Properties properties = new Properties();
+		properties.putAll(entries);
+
+		File tempFile = File.createTempFile(MANIFEST_FILE_NAME, ".tmp", directory);
+		try {
+			OutputStream outputStream = new FileOutputStream(tempFile);
+			try {
+				properties.store(outputStream, "swagger2puml incremental build manifest");
+			} finally {
+				outputStream.close();
+			}
+
+			Files.move(tempFile.toPath(), manifestFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			dirty = true;
+			throw e;
+		} finally {
+			Files.deleteIfExists(tempFile.toPath());
+		}
+	}
+
+	/**
+	 *
+	 * @param specFile
+	 * @param options
+	 *            everything besides the spec content that affects the output
+	 * @return SHA-256 of the spec bytes and the options
+	 * @throws IOException
+	 */
+	public static String fingerprint(File specFile, Map<String, String> options) throws IOException {
+		return fingerprint(Collections.singletonList(specFile.toPath()), options);
+	}
+
+	/**
+	 *
+	 * @param specFiles
+	 *            the spec followed by the local files it references, see
+	 *            {@link PlantUMLWatcher#findLocalFiles(File)}
+	 * @param options
+	 *            everything besides the spec content that affects the output
+	 * @return SHA-256 of the spec bytes, the referenced files and the options;
+	 *         the same as {@link #fingerprint(File, Map)} for a spec without
+	 *         references
+	 * @throws IOException
+	 *             when the spec itself can not be read
+	 */
+	public static String fingerprint(Collection<Path> specFiles, Map<String, String> options) throws IOException {
+		MessageDigest digest = newDigest();
+		byte[] buffer = new byte[8192];
+
+		Iterator<Path> files = specFiles.iterator();
+		Path specFile = files.next().toAbsolutePath();
+		update(digest, specFile, buffer);
+
+		while (files.hasNext()) {
+			Path reference = files.next().toAbsolutePath();
+			String location = specFile.getParent().relativize(reference).toString().replace('\\', '/');
+			digest.update((byte) 0);
+			digest.update(location.getBytes("UTF-8"));
+
+			if (Files.isRegularFile(reference)) {
+				digest.update((byte) '=');
+				update(digest, reference, buffer);
+			} else {
+				digest.update((byte) '!');
+			}
+		}
+
+		for (Map.Entry<String, String> option : options.entrySet()) {
+			digest.update((byte) 0);
+			digest.update(option.getKey().getBytes("UTF-8"));
+			digest.update((byte) '=');
+			digest.update(String.valueOf(option.getValue()).getBytes("UTF-8"));
+		}
+
+		return toHex(digest.digest());
+	}
+
+	private static void update(MessageDigest digest, Path file, byte[] buffer) throws IOException {
+		InputStream inputStream = new FileInputStream(file.toFile());
+		try {
+			for (int read = inputStream.read(buffer); read >= 0; read = inputStream.read(buffer)) {
+				digest.update(buffer, 0, read);
+			}
+		} finally {
+			inputStream.close();
+		}
+	}
+
+	/**
+	 *
+	 * @param content
+	 * @return SHA-256 of the content
+	 */
+	public static String hash(byte[] content) {
+		return toHex(newDigest().digest(content));
+	}
+
+	private String getKey(File outputDirectory) {
+		String path = outputDirectory.getAbsolutePath();
+		String root = directory.getPath();
+
+		if (path.equals(root)) {
+			return ".";
+		}
+		if (path.startsWith(root + File.separator)) {
+			return path.substring(root.length() + 1).replace(File.separatorChar, '/');
+		}
+		return path;
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		char[] hex = new char[bytes.length * 2];
+
+		for (int i = 0; i < bytes.length; i++) {
+			hex[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+			hex[i * 2 + 1] = HEX[bytes[i] & 0xF];
+		}
+
+		return new String(hex);
+	}
+}
@@ -0,0 +1,306 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.kicksolutions.swagger.plantuml.vo.PhaseReport;
+import com.kicksolutions.swagger.plantuml.vo.SpecReport;
+
+/**
+ * Measures the phases of converting one spec: wall time, CPU time and bytes
+ * allocated by the converting thread, plus whatever the phase's fork-join
+ * workers spent. Phases of a spec run one after the other.
+ *
+ * <p>
+ * On JVMs with Flight Recorder every phase is also emitted as a
+ * {@code com.kicksolutions.swagger2puml.ConversionStage} event carrying the
+ * spec and the entity counts known so far. The event class is only loaded when
+ * {@code jdk.jfr} exists, and an event is only begun while a recording has it
+ * enabled.
+ * </p>
+ *
+ * <p>
+ * {@link #DISABLED} measures nothing, so conversions without a report pay
+ * only for a few calls on it.
+ * </p>
+ *
+ * @author MSANTOSH
+ *
+ */
+public class ConversionMetrics {
+
+	private static final Logger LOGGER = Logger.getLogger(ConversionMetrics.class.getName());
+
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+	private static final String JFR_EVENTS_CLASS = "com.kicksolutions.swagger.plantuml.JfrStageEvents";
+	private static final StageEvents EVENTS = loadEvents();
+
+	/** collects nothing */
+	public static final ConversionMetrics DISABLED = new ConversionMetrics(null, null, null);
+
+	private static final Phase DISABLED_PHASE = DISABLED.new Phase(null);
+
+	private final String spec;
+	private final SpecReport report;
+	private final StageEvents events;
+	private final long start = System.nanoTime();
+	private final AtomicLong workerCpuNanos = new AtomicLong();
+	private final AtomicLong workerAllocatedBytes = new AtomicLong();
+	private int models;
+	private int operations;
+	private int relations;
+
+	/**
+	 *
+	 * @param report
+	 *            receives the phases and counts
+	 */
+	public ConversionMetrics(SpecReport report) {
+		this(report.getSpecFile(), report, EVENTS);
+	}
+
+	private ConversionMetrics(String spec, SpecReport report, StageEvents events) {
+		this.spec = spec;
+		this.report = report;
+		this.events = events;
+	}
+
+	/**
+	 *
+	 * @param spec
+	 *            name the Flight Recorder events of the spec carry
+	 * @return metrics emitting only events, {@link #DISABLED} when the JVM has
+	 *         no Flight Recorder
+	 */
+	public static ConversionMetrics forSpec(String spec) {
+		return EVENTS == null ? DISABLED : new ConversionMetrics(spec, null, EVENTS);
+	}
+
+	/**
+	 *
+	 * @return true when phases are measured for a report
+	 */
+	public boolean isEnabled() {
+		return report != null;
+	}
+
+	/**
+	 *
+	 * @param name
+	 * @return the running phase, to be ended once it is done
+	 */
+	public Phase begin(String name) {
+		return report != null || events != null ? new Phase(name) : DISABLED_PHASE;
+	}
+
+	/**
+	 * Adds what a worker thread spent on the running phase.
+	 *
+	 * @param cpuNanos
+	 * @param allocatedBytes
+	 */
+	void addWorkerUsage(long cpuNanos, long allocatedBytes) {
+		workerCpuNanos.addAndGet(cpuNanos);
+		workerAllocatedBytes.addAndGet(allocatedBytes);
+	}
+
+	public void setModels(int models) {
+		this.models = models;
+
+		if (isEnabled()) {
+			report.setModels(models);
+		}
+	}
+
+	public void setOperations(int operations) {
+		this.operations = operations;
+
+		if (isEnabled()) {
+			report.setOperations(operations);
+		}
+	}
+
+	public void setRelations(int relations) {
+		this.relations = relations;
+
+		if (isEnabled()) {
+			report.setRelations(relations);
+		}
+	}
+
+	public void setOutputBytes(long outputBytes) {
+		if (isEnabled()) {
+			report.setOutputBytes(outputBytes);
+		}
+	}
+
+	public void setSkipped(boolean skipped) {
+		if (isEnabled()) {
+			report.setSkipped(skipped);
+		}
+	}
+
+	/**
+	 *
+	 * @param e
+	 *            reason the conversion failed
+	 */
+	public void setFailed(Throwable e) {
+		if (isEnabled()) {
+			report.setSuccess(false);
+			report.setErrorMessage(String.valueOf(e.getCause() != null ? e.getCause() : e));
+		}
+	}
+
+	/**
+	 *
+	 * @return the completed report, null when disabled
+	 */
+	public SpecReport finish() {
+		if (isEnabled()) {
+			report.setWallNanos(System.nanoTime() - start);
+		}
+		return report;
+	}
+
+	/**
+	 *
+	 * @return CPU time of the current thread, -1 when not measurable
+	 */
+	static long getCurrentThreadCpuNanos() {
+		return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+	}
+
+	/**
+	 *
+	 * @return bytes allocated by the current thread, -1 when not measurable
+	 */
+	static long getCurrentThreadAllocatedBytes() {
+		if (THREADS instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+
+			if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+				return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 *
+	 * @return sum of the peak usage of every heap pool
+	 */
+	static long getPeakHeapBytes() {
+		long peak = 0;
+
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+				peak += pool.getPeakUsage().getUsed();
+			}
+		}
+
+		return peak;
+	}
+
+	/**
+	 * Resets the heap peaks, so later reports only cover what follows.
+	 */
+	static void resetPeakHeap() {
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+				pool.resetPeakUsage();
+			}
+		}
+	}
+
+	private static StageEvents loadEvents() {
+		try {
+			Class.forName("jdk.jfr.Event");
+			return (StageEvents) Class.forName(JFR_EVENTS_CLASS).getDeclaredConstructor().newInstance();
+		} catch (LinkageError e) {
+			LOGGER.log(Level.FINE, "Flight Recorder events unavailable", e);
+		} catch (ReflectiveOperationException e) {
+			LOGGER.log(Level.FINE, "Flight Recorder events unavailable", e);
+		}
+		return null;
+	}
+
+	private static long delta(long end, long start) {
+		return end < 0 || start < 0 ? -1 : end - start;
+	}
+
+	/**
+	 * A running phase.
+	 */
+	public class Phase {
+
+		private final String name;
+		private final long wallStart;
+		private final long cpuStart;
+		private final long allocatedStart;
+		private final long workerCpuStart;
+		private final long workerAllocatedStart;
+		private final Object event;
+
+		private Phase(String name) {
+			this.name = name;
+			this.event = name != null && events != null ? events.begin() : null;
+
+			if (name == null || report == null) {
+				wallStart = cpuStart = allocatedStart = workerCpuStart = workerAllocatedStart = 0;
+			} else {
+				workerCpuStart = workerCpuNanos.get();
+				workerAllocatedStart = workerAllocatedBytes.get();
+				allocatedStart = getCurrentThreadAllocatedBytes();
+				cpuStart = getCurrentThreadCpuNanos();
+				wallStart = System.nanoTime();
+			}
+		}
+
+		/**
+		 * Records the phase, must be called on the thread which began it.
+		 */
+		public void end() {
+			if (event != null) {
+				events.commit(event, spec, name, models, operations, relations);
+			}
+
+			if (name == null || report == null) {
+				return;
+			}
+
+			long wall = System.nanoTime() - wallStart;
+			long cpu = delta(getCurrentThreadCpuNanos(), cpuStart);
+			long allocated = delta(getCurrentThreadAllocatedBytes(), allocatedStart);
+
+			if (cpu >= 0) {
+				cpu += workerCpuNanos.get() - workerCpuStart;
+			}
+			if (allocated >= 0) {
+				allocated += workerAllocatedBytes.get() - workerAllocatedStart;
+			}
+
+			report.getPhases().add(new PhaseReport(name, wall, cpu, allocated));
+		}
+	}
+
+	/**
+	 * Flight Recorder events of the phases, implemented apart so this class
+	 * also loads on JVMs without {@code jdk.jfr}.
+	 */
+	interface StageEvents {
+
+		/**
+		 *
+		 * @return the begun event, null when no recording enables it
+		 */
+		Object begin();
+
+		void commit(Object event, String spec, String stage, int models, int operations, int relations);
+	}
+}
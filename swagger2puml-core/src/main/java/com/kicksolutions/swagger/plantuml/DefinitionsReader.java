@@ -0,0 +1,259 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.swagger.models.Info;
+import io.swagger.models.Model;
+import io.swagger.models.Path;
+import io.swagger.models.Swagger;
+import io.swagger.parser.util.SwaggerDeserializer;
+import io.swagger.util.Json;
+import io.swagger.util.Yaml;
+
+/**
+ * Reads only the info and the definitions of a Swagger 2.0 spec, for
+ * diagrams of the definitions alone. The memory mapped spec is pulled through
+ * Jackson's streaming parser; every definition is built on its own the way
+ * {@code SwaggerParser} builds it, while paths, parameters, responses and
+ * everything else are skipped without being built. The heap needed grows with
+ * the definitions rather than the spec.
+ *
+ * <p>
+ * Specs this reader can not handle like {@code SwaggerParser} would, such as
+ * Swagger 1.x specs or definitions referencing other files, are reported with
+ * a null result so they can be parsed in full instead.
+ * </p>
+ *
+ * @author MSANTOSH
+ *
+ */
+public class DefinitionsReader {
+
+	private static final Logger LOGGER = Logger.getLogger(DefinitionsReader.class.getName());
+
+	private static final String SWAGGER_VERSION = "2.0";
+
+	public DefinitionsReader() {
+		super();
+	}
+
+	/**
+	 *
+	 * @param specFile
+	 *            JSON or YAML spec
+	 * @return spec with info and definitions only, null when the spec has to
+	 *         be parsed in full
+	 * @throws IOException
+	 */
+	public Swagger read(File specFile) throws IOException {
+		LOGGER.entering(LOGGER.getName(), "read");
+
+		ByteBuffer buffer = map(specFile);
+		JsonParser parser = getFactory(buffer).createParser(new ByteBufferInputStream(buffer));
+		Swagger swagger;
+
+		try {
+			swagger = read(parser);
+		} finally {
+			parser.close();
+		}
+
+		if (swagger == null) {
+			LOGGER.info("Definitions of " + specFile + " can not be streamed, parsing the whole spec");
+		}
+
+		LOGGER.exiting(LOGGER.getName(), "read");
+		return swagger;
+	}
+
+	/**
+	 *
+	 * @param parser
+	 * @return
+	 * @throws IOException
+	 */
+	private Swagger read(JsonParser parser) throws IOException {
+		if (parser.nextToken() != JsonToken.START_OBJECT) {
+			return null;
+		}
+
+		DefinitionDeserializer deserializer = new DefinitionDeserializer();
+		String version = null;
+		Info info = null;
+		Map<String, Model> definitions = new LinkedHashMap<String, Model>();
+
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			JsonToken value = parser.nextToken();
+
+			if ("swagger".equals(field) && value.isScalarValue()) {
+				version = parser.getText();
+			} else if ("info".equals(field) && value == JsonToken.START_OBJECT) {
+				info = deserializer.info((ObjectNode) parser.readValueAsTree());
+			} else if ("definitions".equals(field) && value == JsonToken.START_OBJECT) {
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					String name = parser.getCurrentName();
+					parser.nextToken();
+					JsonNode definition = parser.readValueAsTree();
+
+					if (hasExternalReference(definition)) {
+						return null;
+					}
+
+					if (definition instanceof ObjectNode) {
+						definitions.put(name, deserializer.definition((ObjectNode) definition, name));
+					}
+				}
+			} else {
+				parser.skipChildren();
+			}
+		}
+
+		if (!SWAGGER_VERSION.equals(version)) {
+			return null;
+		}
+
+		Swagger swagger = new Swagger();
+		swagger.setSwagger(version);
+		swagger.setInfo(info);
+		swagger.setDefinitions(definitions);
+		swagger.setPaths(new LinkedHashMap<String, Path>());
+		return swagger;
+	}
+
+	/**
+	 *
+	 * @param node
+	 * @return true for {@code $ref}s to other files, which only
+	 *         {@code SwaggerParser} resolves
+	 */
+	private static boolean hasExternalReference(JsonNode node) {
+		if (node.isObject()) {
+			JsonNode ref = node.get("$ref");
+
+			if (ref != null && ref.isTextual() && !ref.asText().startsWith("#")) {
+				return true;
+			}
+		}
+
+		for (Iterator<JsonNode> children = node.elements(); children.hasNext();) {
+			if (hasExternalReference(children.next())) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 *
+	 * @param specFile
+	 * @return the whole file, mapped read only
+	 * @throws IOException
+	 */
+	private static ByteBuffer map(File specFile) throws IOException {
+		FileChannel channel = FileChannel.open(specFile.toPath(), StandardOpenOption.READ);
+
+		try {
+			// the mapping stays valid after the channel is closed
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * JSON specs start with an object, anything else is read as YAML.
+	 *
+	 * @param buffer
+	 * @return
+	 */
+	private static JsonFactory getFactory(ByteBuffer buffer) {
+		for (int i = buffer.position(); i < buffer.limit(); i++) {
+			byte b = buffer.get(i);
+
+			if (b == '{') {
+				return Json.mapper().getFactory();
+			} else if (!Character.isWhitespace(b) && (b & 0x80) == 0) {
+				break;
+			}
+		}
+
+		return Yaml.mapper().getFactory();
+	}
+
+	/**
+	 * Builds parts of a spec exactly like {@code SwaggerParser} does,
+	 * collecting the problems it finds like it does.
+	 */
+	private static final class DefinitionDeserializer extends SwaggerDeserializer {
+
+		private final ParseResult result = new ParseResult();
+
+		private Info info(ObjectNode node) {
+			return info(node, "info", result);
+		}
+
+		private Model definition(ObjectNode node, String name) {
+			return definition(node, "definitions." + name, result);
+		}
+	}
+
+	/**
+	 * Reads a buffer without copying it first.
+	 */
+	private static final class ByteBufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		private ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) {
+			if (length == 0) {
+				return 0;
+			}
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+
+			int read = Math.min(length, buffer.remaining());
+			buffer.get(bytes, offset, read);
+			return read;
+		}
+
+		@Override
+		public long skip(long n) {
+			int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+			buffer.position(buffer.position() + skipped);
+			return skipped;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+	}
+}
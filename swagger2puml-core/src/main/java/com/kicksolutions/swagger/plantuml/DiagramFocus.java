@@ -0,0 +1,374 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+import io.swagger.models.ArrayModel;
+import io.swagger.models.ComposedModel;
+import io.swagger.models.Model;
+import io.swagger.models.ModelImpl;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.RefModel;
+import io.swagger.models.Response;
+import io.swagger.models.Swagger;
+import io.swagger.models.parameters.BodyParameter;
+import io.swagger.models.parameters.Parameter;
+import io.swagger.models.parameters.SerializableParameter;
+import io.swagger.models.properties.ArrayProperty;
+import io.swagger.models.properties.MapProperty;
+import io.swagger.models.properties.ObjectProperty;
+import io.swagger.models.properties.Property;
+import io.swagger.models.properties.RefProperty;
+
+/**
+ * Narrows a diagram to the models, tags and paths a reader cares about. The
+ * operations of the focused tags and paths, and the operations using a
+ * focused model, are kept together with every model reachable from them
+ * through {@code $ref}s, up to an optional depth. Everything else is skipped
+ * before it is converted.
+ *
+ * <p>
+ * Models referenced from beyond the depth limit still appear as relation
+ * targets, without their members.
+ * </p>
+ *
+ * @author MSANTOSH
+ *
+ */
+public class DiagramFocus {
+
+	private static final Logger LOGGER = Logger.getLogger(DiagramFocus.class.getName());
+
+	private final Set<String> models = new LinkedHashSet<String>();
+	private final Set<String> tags = new LinkedHashSet<String>();
+	private final List<String> pathGlobs = new ArrayList<String>();
+	private final List<Pattern> pathPatterns = new ArrayList<Pattern>();
+	private int depth = -1;
+
+	public DiagramFocus() {
+		super();
+	}
+
+	/**
+	 *
+	 * @param models
+	 *            comma separated definition names
+	 * @return
+	 */
+	public DiagramFocus addModels(String models) {
+		for (String model : split(models)) {
+			this.models.add(model);
+		}
+		return this;
+	}
+
+	/**
+	 *
+	 * @param tags
+	 *            comma separated tags, compared ignoring case
+	 * @return
+	 */
+	public DiagramFocus addTags(String tags) {
+		for (String tag : split(tags)) {
+			this.tags.add(tag.toLowerCase(Locale.ENGLISH));
+		}
+		return this;
+	}
+
+	/**
+	 *
+	 * @param pathGlobs
+	 *            comma separated globs, {@code *} matches within a path
+	 *            segment and {@code **} across segments
+	 * @return
+	 */
+	public DiagramFocus addPaths(String pathGlobs) {
+		for (String pathGlob : split(pathGlobs)) {
+			this.pathGlobs.add(pathGlob);
+			this.pathPatterns.add(toPattern(pathGlob));
+		}
+		return this;
+	}
+
+	/**
+	 *
+	 * @param depth
+	 *            most {@code $ref}s followed from a focused model or operation,
+	 *            negative for no limit
+	 */
+	public void setDepth(int depth) {
+		this.depth = depth;
+	}
+
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 *
+	 * @return true when nothing is focused and the whole spec is converted
+	 */
+	public boolean isEmpty() {
+		return models.isEmpty() && tags.isEmpty() && pathGlobs.isEmpty();
+	}
+
+	/**
+	 *
+	 * @param swagger
+	 * @return the operations and models of the spec in focus
+	 */
+	Selection select(Swagger swagger) {
+		LOGGER.entering(LOGGER.getName(), "select");
+
+		Map<String, Model> definitions = swagger.getDefinitions() != null ? swagger.getDefinitions()
+				: Collections.<String, Model>emptyMap();
+		Map<String, Path> paths = swagger.getPaths() != null ? swagger.getPaths()
+				: Collections.<String, Path>emptyMap();
+
+		for (String model : models) {
+			if (!definitions.containsKey(model)) {
+				LOGGER.warning("Focused Model " + model + " is not defined");
+			}
+		}
+
+		Map<String, Integer> distances = new HashMap<String, Integer>();
+		Deque<String> pending = new ArrayDeque<String>();
+		for (String model : models) {
+			if (definitions.containsKey(model) && !distances.containsKey(model)) {
+				distances.put(model, 0);
+				pending.add(model);
+			}
+		}
+
+		Set<Operation> operations = Collections.newSetFromMap(new IdentityHashMap<Operation, Boolean>());
+		for (Map.Entry<String, Path> path : paths.entrySet()) {
+			boolean pathFocused = isFocusedPath(path.getKey());
+
+			for (Operation operation : path.getValue().getOperations()) {
+				Set<String> references = new LinkedHashSet<String>();
+				collectReferences(operation, references);
+
+				if (pathFocused || isFocusedTag(operation) || !Collections.disjoint(references, models)) {
+					operations.add(operation);
+
+					for (String reference : references) {
+						if (definitions.containsKey(reference) && !distances.containsKey(reference) && depth != 0) {
+							distances.put(reference, 1);
+							pending.add(reference);
+						}
+					}
+				}
+			}
+		}
+
+		while (!pending.isEmpty()) {
+			String model = pending.poll();
+			int distance = distances.get(model);
+
+			if (depth >= 0 && distance >= depth) {
+				continue;
+			}
+
+			Set<String> references = new LinkedHashSet<String>();
+			collectReferences(definitions.get(model), references);
+
+			for (String reference : references) {
+				if (definitions.containsKey(reference) && !distances.containsKey(reference)) {
+					distances.put(reference, distance + 1);
+					pending.add(reference);
+				}
+			}
+		}
+
+		LOGGER.info("Focused on " + distances.size() + " of " + definitions.size() + " Models and "
+				+ operations.size() + " Operations");
+
+		LOGGER.exiting(LOGGER.getName(), "select");
+		return new Selection(distances.keySet(), operations);
+	}
+
+	private boolean isFocusedPath(String uri) {
+		for (Pattern pathPattern : pathPatterns) {
+			if (pathPattern.matcher(uri).matches()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isFocusedTag(Operation operation) {
+		if (tags.isEmpty() || operation.getTags() == null) {
+			return false;
+		}
+
+		for (String tag : operation.getTags()) {
+			if (tag != null && tags.contains(tag.toLowerCase(Locale.ENGLISH))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Models whose members become part of the model, parents included.
+	 *
+	 * @param model
+	 * @param references
+	 */
+	private static void collectReferences(Model model, Set<String> references) {
+		if (model instanceof RefModel) {
+			references.add(((RefModel) model).getSimpleRef());
+		} else if (model instanceof ArrayModel) {
+			collectReferences(((ArrayModel) model).getItems(), references);
+		} else if (model instanceof ComposedModel) {
+			for (Model allOf : ((ComposedModel) model).getAllOf()) {
+				collectReferences(allOf, references);
+			}
+			collectReferences(((ComposedModel) model).getChild(), references);
+		} else if (model instanceof ModelImpl) {
+			collectReferences(((ModelImpl) model).getAdditionalProperties(), references);
+		}
+
+		if (model != null && !(model instanceof ComposedModel) && model.getProperties() != null) {
+			for (Property property : model.getProperties().values()) {
+				collectReferences(property, references);
+			}
+		}
+	}
+
+	private static void collectReferences(Property property, Set<String> references) {
+		if (property instanceof RefProperty) {
+			references.add(((RefProperty) property).getSimpleRef());
+		} else if (property instanceof ArrayProperty) {
+			collectReferences(((ArrayProperty) property).getItems(), references);
+		} else if (property instanceof MapProperty) {
+			collectReferences(((MapProperty) property).getAdditionalProperties(), references);
+		} else if (property instanceof ObjectProperty && ((ObjectProperty) property).getProperties() != null) {
+			for (Property child : ((ObjectProperty) property).getProperties().values()) {
+				collectReferences(child, references);
+			}
+		}
+	}
+
+	/**
+	 * Models used by the parameters and responses, errors included.
+	 *
+	 * @param operation
+	 * @param references
+	 */
+	private static void collectReferences(Operation operation, Set<String> references) {
+		if (operation.getParameters() != null) {
+			for (Parameter parameter : operation.getParameters()) {
+				if (parameter instanceof BodyParameter) {
+					collectReferences(((BodyParameter) parameter).getSchema(), references);
+				} else if (parameter instanceof SerializableParameter) {
+					collectReferences(((SerializableParameter) parameter).getItems(), references);
+				}
+			}
+		}
+
+		if (operation.getResponses() != null) {
+			for (Response response : operation.getResponses().values()) {
+				collectReferences(response.getSchema(), references);
+			}
+		}
+	}
+
+	private static List<String> split(String values) {
+		List<String> split = new ArrayList<String>();
+
+		if (values != null) {
+			for (String value : values.split(",")) {
+				if (value.trim().length() > 0) {
+					split.add(value.trim());
+				}
+			}
+		}
+
+		return split;
+	}
+
+	/**
+	 * A trailing {@code /**} also matches the path it is appended to.
+	 *
+	 * @param glob
+	 * @return
+	 */
+	static Pattern toPattern(String glob) {
+		StringBuilder regex = new StringBuilder();
+		int literal = 0;
+
+		for (int i = 0; i < glob.length(); i++) {
+			char c = glob.charAt(i);
+			String wildcard = null;
+			int length = 1;
+
+			if (glob.startsWith("/**", i)) {
+				wildcard = "(/.*)?";
+				length = 3;
+			} else if (glob.startsWith("**", i)) {
+				wildcard = ".*";
+				length = 2;
+			} else if (c == '*') {
+				wildcard = "[^/]*";
+			} else if (c == '?') {
+				wildcard = "[^/]";
+			}
+
+			if (wildcard != null) {
+				if (literal < i) {
+					regex.append(Pattern.quote(glob.substring(literal, i)));
+				}
+				regex.append(wildcard);
+				i += length - 1;
+				literal = i + 1;
+			}
+		}
+
+		if (literal < glob.length()) {
+			regex.append(Pattern.quote(glob.substring(literal)));
+		}
+
+		return Pattern.compile(regex.toString());
+	}
+
+	@Override
+	public String toString() {
+		return "DiagramFocus [models=" + models + ", tags=" + tags + ", paths=" + pathGlobs + ", depth=" + depth
+				+ "]";
+	}
+
+	/**
+	 * The models and operations in focus, by definition name and identity.
+	 */
+	static final class Selection {
+
+		private final Set<String> models;
+		private final Set<Operation> operations;
+
+		private Selection(Set<String> models, Set<Operation> operations) {
+			this.models = models;
+			this.operations = operations;
+		}
+
+		boolean containsModel(String name) {
+			return models.contains(name);
+		}
+
+		boolean containsOperation(Operation operation) {
+			return operations.contains(operation);
+		}
+	}
+}
@@ -0,0 +1,274 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.kicksolutions.swagger.plantuml.vo.ClassDiagram;
+import com.kicksolutions.swagger.plantuml.vo.ClassRelation;
+import com.kicksolutions.swagger.plantuml.vo.DiagramPartition;
+import com.kicksolutions.swagger.plantuml.vo.InterfaceDiagram;
+import com.kicksolutions.swagger.plantuml.vo.PartitionRelation;
+
+/**
+ * Splits the models, interfaces and relations of a spec into partitions of at
+ * most {@code maxNodes} models and interfaces, keeping related nodes together
+ * so few relations cross partitions. Nodes and relations keep their order in
+ * the spec within every partition, so the output is deterministic.
+ *
+ * <p>
+ * A partition holds the relations between its own nodes, and those to types
+ * which are not part of the spec; relations between partitions are only
+ * counted on the index diagram.
+ * </p>
+ *
+ * @author MSANTOSH
+ *
+ */
+final class DiagramPartitioner {
+
+	private final PartitionMode mode;
+	private final int maxNodes;
+
+	private List<ClassDiagram> classDiagrams;
+	private List<InterfaceDiagram> interfaceDiagrams;
+	private List<ClassRelation> relations;
+	private RelationGraph graph;
+	private int nodeCount;
+
+	/**
+	 *
+	 * @param mode
+	 * @param maxNodes
+	 *            most models and interfaces in a partition
+	 */
+	DiagramPartitioner(PartitionMode mode, int maxNodes) {
+		if (maxNodes < 1) {
+			throw new IllegalArgumentException("maxNodes must be positive: " + maxNodes);
+		}
+
+		this.mode = mode;
+		this.maxNodes = maxNodes;
+	}
+
+	/**
+	 *
+	 * @param classDiagrams
+	 * @param interfaceDiagrams
+	 * @param relations
+	 *            relations of the whole diagram, with their source set
+	 * @return partitions in the order of their first node
+	 */
+	List<DiagramPartition> partition(List<ClassDiagram> classDiagrams, List<InterfaceDiagram> interfaceDiagrams,
+			List<ClassRelation> relations) {
+		this.classDiagrams = classDiagrams;
+		this.interfaceDiagrams = interfaceDiagrams;
+		this.relations = relations;
+		this.graph = new RelationGraph(classDiagrams, interfaceDiagrams, relations);
+		this.nodeCount = graph.getNodeCount();
+
+		List<int[]> groups = new ArrayList<int[]>();
+		List<String> names = new ArrayList<String>();
+
+		if (mode == PartitionMode.TAG) {
+			boolean[] covered = new boolean[nodeCount];
+
+			for (int i = 0; i < interfaceDiagrams.size(); i++) {
+				int[] group = graph.reach(classDiagrams.size() + i, maxNodes);
+				for (int node : group) {
+					covered[node] = true;
+				}
+				groups.add(group);
+				names.add(interfaceDiagrams.get(i).getInterfaceName());
+			}
+
+			boolean[] remaining = new boolean[nodeCount];
+			for (int node = 0; node < classDiagrams.size(); node++) {
+				remaining[node] = !covered[node];
+			}
+			pack(graph.getComponents(remaining), groups, names);
+		} else {
+			List<int[]> components = graph.getComponents();
+
+			if (mode == PartitionMode.COMPONENT) {
+				pack(components, groups, names);
+			} else {
+				split(concat(components), groups, names);
+			}
+		}
+
+		List<DiagramPartition> partitions = new ArrayList<DiagramPartition>(groups.size());
+		for (int i = 0; i < groups.size(); i++) {
+			String fileName = new StringBuilder().append("swagger-").append(i + 1).append("-")
+					.append(names.get(i).replaceAll("[^A-Za-z0-9_.-]", "_")).toString();
+			partitions.add(toPartition(names.get(i), "P" + (i + 1), fileName, groups.get(i)));
+		}
+
+		return partitions;
+	}
+
+	/**
+	 * Counts the relations no partition holds, by the first partitions of
+	 * their source and target.
+	 *
+	 * @param partitions
+	 * @return relations between partitions, in the order they first occur
+	 */
+	List<PartitionRelation> link(List<DiagramPartition> partitions) {
+		Map<String, DiagramPartition> home = new HashMap<String, DiagramPartition>();
+		Map<ClassRelation, Boolean> contained = new IdentityHashMap<ClassRelation, Boolean>();
+
+		for (DiagramPartition partition : partitions) {
+			for (ClassDiagram classDiagram : partition.getClassDiagrams()) {
+				putIfAbsent(home, classDiagram.getClassName(), partition);
+			}
+			for (InterfaceDiagram interfaceDiagram : partition.getInterfaceDiagrams()) {
+				putIfAbsent(home, interfaceDiagram.getInterfaceName(), partition);
+			}
+			for (ClassRelation relation : partition.getEntityRelations()) {
+				contained.put(relation, Boolean.TRUE);
+			}
+		}
+
+		Map<List<String>, Integer> counts = new LinkedHashMap<List<String>, Integer>();
+		for (ClassRelation relation : relations) {
+			DiagramPartition source = home.get(relation.getSourceClass());
+			DiagramPartition target = home.get(relation.getTargetClass());
+
+			if (source == null || target == null || source == target || contained.containsKey(relation)) {
+				continue;
+			}
+
+			List<String> link = Arrays.asList(source.getAlias(), target.getAlias());
+			Integer count = counts.get(link);
+			counts.put(link, count == null ? 1 : count + 1);
+		}
+
+		List<PartitionRelation> links = new ArrayList<PartitionRelation>(counts.size());
+		for (Map.Entry<List<String>, Integer> count : counts.entrySet()) {
+			links.add(new PartitionRelation(count.getKey().get(0), count.getKey().get(1), count.getValue()));
+		}
+
+		return links;
+	}
+
+	/**
+	 * Packs consecutive components into partitions while they fit the budget,
+	 * splitting components larger than the budget on their own.
+	 *
+	 * @param components
+	 * @param groups
+	 * @param names
+	 */
+	private void pack(List<int[]> components, List<int[]> groups, List<String> names) {
+		List<int[]> packed = new ArrayList<int[]>();
+		int packedSize = 0;
+
+		for (int[] component : components) {
+			if (packedSize > 0 && (packedSize + component.length > maxNodes || component.length > maxNodes)) {
+				split(concat(packed), groups, names);
+				packed.clear();
+				packedSize = 0;
+			}
+
+			packed.add(component);
+			packedSize += component.length;
+		}
+
+		if (packedSize > 0) {
+			split(concat(packed), groups, names);
+		}
+	}
+
+	/**
+	 *
+	 * @param order
+	 *            nodes in the order they are assigned to partitions
+	 * @param groups
+	 * @param names
+	 */
+	private void split(int[] order, List<int[]> groups, List<String> names) {
+		for (int from = 0; from < order.length; from += maxNodes) {
+			int[] group = Arrays.copyOfRange(order, from, Math.min(from + maxNodes, order.length));
+			groups.add(group);
+			names.add(graph.getName(group[0]));
+		}
+	}
+
+	private static int[] concat(List<int[]> parts) {
+		int length = 0;
+		for (int[] part : parts) {
+			length += part.length;
+		}
+
+		int[] all = new int[length];
+		int offset = 0;
+		for (int[] part : parts) {
+			System.arraycopy(part, 0, all, offset, part.length);
+			offset += part.length;
+		}
+
+		return all;
+	}
+
+	/**
+	 *
+	 * @param name
+	 * @param alias
+	 * @param fileName
+	 * @param group
+	 * @return partition with the group's nodes and relations in spec order
+	 */
+	private DiagramPartition toPartition(String name, String alias, String fileName, int[] group) {
+		int[] members = group.clone();
+		Arrays.sort(members);
+
+		boolean[] member = new boolean[nodeCount];
+		for (int node : members) {
+			member[node] = true;
+		}
+
+		List<ClassDiagram> partitionClasses = new ArrayList<ClassDiagram>();
+		List<InterfaceDiagram> partitionInterfaces = new ArrayList<InterfaceDiagram>();
+		List<Integer> partitionRelations = new ArrayList<Integer>();
+
+		for (int node : members) {
+			if (node < classDiagrams.size()) {
+				partitionClasses.add(classDiagrams.get(node));
+			} else {
+				partitionInterfaces.add(interfaceDiagrams.get(node - classDiagrams.size()));
+			}
+
+			for (int relation : graph.getOutgoing(node)) {
+				int target = graph.getTarget(relation);
+
+				if (target < 0 || member[target]) {
+					partitionRelations.add(relation);
+				}
+			}
+		}
+
+		int[] relationOrder = new int[partitionRelations.size()];
+		for (int i = 0; i < relationOrder.length; i++) {
+			relationOrder[i] = partitionRelations.get(i);
+		}
+		Arrays.sort(relationOrder);
+
+		List<ClassRelation> entityRelations = new ArrayList<ClassRelation>(relationOrder.length);
+		for (int relation : relationOrder) {
+			entityRelations.add(relations.get(relation));
+		}
+
+		return new DiagramPartition(name, alias, fileName, partitionClasses, partitionInterfaces, entityRelations);
+	}
+
+	private static <V> void putIfAbsent(Map<String, V> map, String key, V value) {
+		if (!map.containsKey(key)) {
+			map.put(key, value);
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.kicksolutions.swagger.plantuml.vo.InterfaceDiagram;
+import com.kicksolutions.swagger.plantuml.vo.MethodDefinitions;
+
+/**
+ * Hashed, insertion ordered accumulator merging the single operation
+ * {@link InterfaceDiagram}s of a spec into one diagram per interface name, so
+ * every tag becomes a single node. Methods and relations are de-duplicated;
+ * each method keeps its own error class, while the interface lists the union
+ * of them.
+ *
+ * @author MSANTOSH
+ *
+ */
+public class InterfaceIndex {
+
+	private static final char KEY_SEPARATOR = '\u0000';
+	private static final String ERROR_CLASS_SEPARATOR = ",";
+
+	private final Map<String, MergedInterface> interfaces = new LinkedHashMap<String, MergedInterface>();
+
+	/**
+	 *
+	 * @param interfaceDiagram
+	 *            diagram of one or more operations
+	 */
+	public void add(InterfaceDiagram interfaceDiagram) {
+		MergedInterface merged = interfaces.get(interfaceDiagram.getInterfaceName());
+
+		if (merged == null) {
+			merged = new MergedInterface(interfaceDiagram.getInterfaceName());
+			interfaces.put(interfaceDiagram.getInterfaceName(), merged);
+		}
+
+		merged.add(interfaceDiagram);
+	}
+
+	/**
+	 *
+	 * @param interfaceDiagrams
+	 * @return
+	 */
+	public InterfaceIndex addAll(List<InterfaceDiagram> interfaceDiagrams) {
+		for (InterfaceDiagram interfaceDiagram : interfaceDiagrams) {
+			add(interfaceDiagram);
+		}
+		return this;
+	}
+
+	/**
+	 *
+	 * @return one diagram per interface, in the order the interfaces were first
+	 *         added
+	 */
+	public List<InterfaceDiagram> getInterfaces() {
+		List<InterfaceDiagram> interfaceDiagrams = new ArrayList<InterfaceDiagram>(interfaces.size());
+
+		for (MergedInterface merged : interfaces.values()) {
+			interfaceDiagrams.add(merged.toInterfaceDiagram());
+		}
+
+		return interfaceDiagrams;
+	}
+
+	public int size() {
+		return interfaces.size();
+	}
+
+	/**
+	 *
+	 */
+	private static class MergedInterface {
+
+		private final String interfaceName;
+		private final Set<String> methodKeys = new HashSet<String>();
+		private final List<MethodDefinitions> methods = new ArrayList<MethodDefinitions>();
+		private final RelationIndex relations = new RelationIndex(true);
+		private final Set<String> errorClasses = new LinkedHashSet<String>();
+
+		private MergedInterface(String interfaceName) {
+			this.interfaceName = interfaceName;
+		}
+
+		private void add(InterfaceDiagram interfaceDiagram) {
+			String errorClass = interfaceDiagram.getErrorClass();
+
+			if (interfaceDiagram.getMethods() != null) {
+				for (MethodDefinitions method : interfaceDiagram.getMethods()) {
+					if (method.getErrorClass() == null) {
+						method = new MethodDefinitions(method.getReturnType(), method.getMethodDefinition(), errorClass);
+					}
+
+					if (methodKeys.add(getKey(method))) {
+						methods.add(method);
+					}
+				}
+			}
+
+			if (interfaceDiagram.getChildClass() != null) {
+				relations.addAll(interfaceDiagram.getChildClass());
+			}
+
+			if (StringUtils.isNotEmpty(errorClass)) {
+				for (String errorClassName : StringUtils.split(errorClass, ERROR_CLASS_SEPARATOR)) {
+					errorClasses.add(errorClassName);
+				}
+			}
+		}
+
+		private InterfaceDiagram toInterfaceDiagram() {
+			return new InterfaceDiagram(interfaceName, methods, relations.getRelations(),
+					StringUtils.join(errorClasses, ERROR_CLASS_SEPARATOR));
+		}
+
+		private static String getKey(MethodDefinitions method) {
+			return new StringBuilder().append(method.getMethodDefinition()).append(KEY_SEPARATOR)
+					.append(method.getReturnType()).append(KEY_SEPARATOR).append(method.getErrorClass()).toString();
+		}
+	}
+}
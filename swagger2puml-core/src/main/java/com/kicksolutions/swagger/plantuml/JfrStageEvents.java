@@ -0,0 +1,76 @@
+package com.kicksolutions.swagger.plantuml;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emits the conversion phases as Flight Recorder events. Only loaded, by
+ * name, when the JVM provides {@code jdk.jfr}; builds on JDKs without it leave
+ * this class out.
+ *
+ * @author MSANTOSH
+ *
+ */
+class JfrStageEvents implements ConversionMetrics.StageEvents {
+
+	@Override
+	public Object begin() {
+		ConversionStageEvent event = new ConversionStageEvent();
+
+		if (!event.isEnabled()) {
+			return null;
+		}
+
+		event.begin();
+		return event;
+	}
+
+	@Override
+	public void commit(Object begun, String spec, String stage, int models, int operations, int relations) {
+		ConversionStageEvent event = (ConversionStageEvent) begun;
+		event.end();
+
+		if (event.shouldCommit()) {
+			event.spec = spec;
+			event.stage = stage;
+			event.models = models;
+			event.operations = operations;
+			event.relations = relations;
+			event.commit();
+		}
+	}
+
+	/**
+	 *
+	 */
+	@Name("com.kicksolutions.swagger2puml.ConversionStage")
+	@Label("Conversion Stage")
+	@Category("Swagger2Puml")
+	@Description("One stage of converting a Swagger spec to PlantUML")
+	@StackTrace(false)
+	static class ConversionStageEvent extends Event {
+
+		@Label("Spec")
+		String spec;
+
+		@Label("Stage")
+		@Description("parse, models, paths, relations, emit or render")
+		String stage;
+
+		@Label("Models")
+		@Description("Models converted so far")
+		int models;
+
+		@Label("Operations")
+		@Description("Operations converted so far")
+		int operations;
+
+		@Label("Relations")
+		@Description("Unique relations found so far")
+		int relations;
+	}
+}
@@ -0,0 +1,186 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import io.swagger.models.ComposedModel;
+import io.swagger.models.Model;
+import io.swagger.models.RefModel;
+import io.swagger.models.properties.Property;
+
+/**
+ * Flattens the properties of composed ({@code allOf}) definitions into new
+ * maps, leaving the parsed spec untouched. Every composed definition is
+ * flattened once, after its parents, so descendants take their ancestors'
+ * properties from the cache. Cyclic {@code allOf}s are cut where they close;
+ * definitions flattened while the cycle was open miss what was cut, so they
+ * are not cached but flattened again once the cycle is complete.
+ *
+ * <p>
+ * The cache is filled by {@link #flatten(List)} on a single thread, in
+ * definition order, which keeps the result independent of how the models are
+ * converted later. {@link #getProperties(String, ComposedModel)} serves the
+ * cache and may be called from any thread.
+ * </p>
+ *
+ * @author MSANTOSH
+ *
+ */
+final class ModelFlattener {
+
+	private static final Logger LOGGER = Logger.getLogger(ModelFlattener.class.getName());
+
+	private final Map<String, Model> models;
+	private final Map<String, Map<String, Property>> flattened = new ConcurrentHashMap<String, Map<String, Property>>();
+	/** lowest depth in the path a cycle was cut at, while that definition is open */
+	private int cutDepth = Integer.MAX_VALUE;
+
+	/**
+	 *
+	 * @param models
+	 *            the definitions of the spec
+	 */
+	ModelFlattener(Map<String, Model> models) {
+		this.models = models;
+	}
+
+	/**
+	 * Flattens the composed models among the given definitions and their
+	 * composed ancestors, unless already done.
+	 *
+	 * @param definitions
+	 */
+	void flatten(List<Map.Entry<String, Model>> definitions) {
+		Deque<String> path = new ArrayDeque<String>();
+
+		for (Map.Entry<String, Model> definition : definitions) {
+			if (definition.getValue() instanceof ComposedModel) {
+				resolve(definition.getKey(), path);
+			}
+		}
+	}
+
+	/**
+	 * Properties of the composed model's own schema followed by those of its
+	 * referenced parents, in {@code allOf} order. The nearest definition of a
+	 * property wins, so a child overrides its ancestors.
+	 *
+	 * @param name
+	 *            definition name of the composed model
+	 * @param composedModel
+	 * @return unmodifiable flattened properties, from the cache unless the
+	 *         definition was not flattened yet
+	 */
+	Map<String, Property> getProperties(String name, ComposedModel composedModel) {
+		if (models.get(name) != composedModel) {
+			return Collections.unmodifiableMap(merge(composedModel, null));
+		}
+
+		Map<String, Property> properties = flattened.get(name);
+		if (properties != null) {
+			return properties;
+		}
+
+		synchronized (this) {
+			return resolve(name, new ArrayDeque<String>());
+		}
+	}
+
+	/**
+	 *
+	 * @param name
+	 * @param path
+	 *            definitions being flattened, to detect cycles, null once the
+	 *            cache is complete
+	 * @return flattened properties, never null
+	 */
+	private Map<String, Property> resolve(String name, Deque<String> path) {
+		Model model = models.get(name);
+
+		if (!(model instanceof ComposedModel)) {
+			Map<String, Property> properties = model != null ? model.getProperties() : null;
+			return properties != null ? properties : Collections.<String, Property>emptyMap();
+		}
+
+		Map<String, Property> properties = flattened.get(name);
+		if (properties != null || path == null) {
+			return properties != null ? properties : Collections.<String, Property>emptyMap();
+		}
+
+		if (path.contains(name)) {
+			LOGGER.warning("Cyclic allOf of " + name + " through " + path);
+			cutDepth = Math.min(cutDepth, getDepth(name, path));
+			return Collections.<String, Property>emptyMap();
+		}
+
+		int depth = path.size();
+		path.push(name);
+		try {
+			properties = Collections.unmodifiableMap(merge((ComposedModel) model, path));
+		} finally {
+			path.pop();
+		}
+
+		if (cutDepth < depth) {
+			return properties;
+		}
+
+		cutDepth = Integer.MAX_VALUE;
+		flattened.put(name, properties);
+		return properties;
+	}
+
+	/**
+	 *
+	 * @param name
+	 * @param path
+	 * @return number of definitions below the name in the path
+	 */
+	private static int getDepth(String name, Deque<String> path) {
+		int depth = path.size();
+
+		for (String open : path) {
+			depth--;
+			if (open.equals(name)) {
+				break;
+			}
+		}
+
+		return depth;
+	}
+
+	/**
+	 *
+	 * @param composedModel
+	 * @param path
+	 * @return
+	 */
+	private Map<String, Property> merge(ComposedModel composedModel, Deque<String> path) {
+		Map<String, Property> properties = new LinkedHashMap<String, Property>();
+
+		if (composedModel.getChild() != null && composedModel.getChild().getProperties() != null) {
+			properties.putAll(composedModel.getChild().getProperties());
+		}
+
+		if (composedModel.getAllOf() != null) {
+			for (Model allOf : composedModel.getAllOf()) {
+				if (allOf instanceof RefModel) {
+					for (Map.Entry<String, Property> property : resolve(((RefModel) allOf).getSimpleRef(), path)
+							.entrySet()) {
+						if (!properties.containsKey(property.getKey())) {
+							properties.put(property.getKey(), property.getValue());
+						}
+					}
+				}
+			}
+		}
+
+		return properties;
+	}
+}
@@ -0,0 +1,125 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import io.swagger.models.Model;
+import io.swagger.models.ModelImpl;
+
+/**
+ * What the converters ask about the definitions of a spec, worked out in a
+ * single pass over them: which names are definitions a {@code $ref} can point
+ * to, which definitions are enums, the required properties of every
+ * definition as a hashed set, and how many members every definition converts
+ * to, so the member lists are allocated once at their size. Built before the models are converted and only
+ * read afterwards, so it is shared by the converter's threads.
+ *
+ * @author MSANTOSH
+ *
+ */
+final class ModelIndex {
+
+	private static final Logger LOGGER = Logger.getLogger(ModelIndex.class.getName());
+
+	private final Set<String> definitions;
+	private final Set<String> enums = new HashSet<String>();
+	private final Map<String, Set<String>> requiredProperties = new HashMap<String, Set<String>>();
+	private final Map<String, Integer> memberCounts = new HashMap<String, Integer>();
+	private int properties;
+
+	/**
+	 *
+	 * @param models
+	 *            the definitions of the spec, may be null
+	 */
+	ModelIndex(Map<String, Model> models) {
+		LOGGER.entering(LOGGER.getName(), "ModelIndex");
+
+		if (models == null) {
+			models = Collections.<String, Model>emptyMap();
+		}
+
+		definitions = new HashSet<String>(models.keySet());
+
+		for (Map.Entry<String, Model> model : models.entrySet()) {
+			index(model.getKey(), model.getValue());
+		}
+
+		LOGGER.info("Indexed " + definitions.size() + " Models with " + properties + " Properties, "
+				+ enums.size() + " Enums and " + requiredProperties.size() + " Models with required Properties");
+		LOGGER.exiting(LOGGER.getName(), "ModelIndex");
+	}
+
+	private void index(String name, Model model) {
+		int propertyCount = model != null && model.getProperties() != null ? model.getProperties().size() : 0;
+		properties += propertyCount;
+
+		if (!(model instanceof ModelImpl)) {
+			return;
+		}
+
+		List<String> enumValues = ((ModelImpl) model).getEnum();
+		if (enumValues != null && !enumValues.isEmpty()) {
+			enums.add(name);
+		}
+
+		// the members of a plain definition are its properties, or without any its enum values
+		int memberCount = propertyCount > 0 ? propertyCount : enumValues != null ? enumValues.size() : 0;
+		if (memberCount > 0) {
+			memberCounts.put(name, memberCount);
+		}
+
+		List<String> required = ((ModelImpl) model).getRequired();
+		if (required != null && !required.isEmpty()) {
+			requiredProperties.put(name, new HashSet<String>(required));
+		}
+	}
+
+	/**
+	 *
+	 * @param ref
+	 *            simple name of a {@code $ref}
+	 * @return true when the spec defines it
+	 */
+	boolean isDefined(String ref) {
+		return definitions.contains(ref);
+	}
+
+	/**
+	 *
+	 * @param name
+	 * @return true for enums, false for classes and unknown names
+	 */
+	boolean isEnum(String name) {
+		return enums.contains(name);
+	}
+
+	/**
+	 * Only plain object definitions are counted.
+	 *
+	 * @param name
+	 * @return properties of the definition, or its enum values when it has no
+	 *         properties; 0 for unknown names
+	 */
+	int getMemberCount(String name) {
+		Integer memberCount = memberCounts.get(name);
+		return memberCount != null ? memberCount.intValue() : 0;
+	}
+
+	/**
+	 * Only plain object definitions list required properties.
+	 *
+	 * @param name
+	 * @param propertyName
+	 * @return
+	 */
+	boolean isRequired(String name, String propertyName) {
+		Set<String> required = requiredProperties.get(name);
+		return required != null && required.contains(propertyName);
+	}
+}
@@ -0,0 +1,140 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Normalizes the type and interface names of a spec once, handing back the
+ * same instance whenever a name recurs, so the diagrams share their strings.
+ * Safe for the converter's threads; once {@code maxSize} names are cached
+ * further names are still normalized, just not kept.
+ *
+ * @author MSANTOSH
+ *
+ */
+final class NameCache {
+
+	private static final String ARRAY_SUFFIX = "[]";
+
+	private final int maxSize;
+	private final ConcurrentMap<String, String> titleCases;
+	private final ConcurrentMap<String, String> arrayTypes;
+	private final ConcurrentMap<String, String> canonicals;
+
+	/**
+	 *
+	 * @param maxSize
+	 *            most names kept of each kind
+	 */
+	NameCache(int maxSize) {
+		this.maxSize = maxSize;
+		this.titleCases = new ConcurrentHashMap<String, String>(Math.min(maxSize, 256));
+		this.arrayTypes = new ConcurrentHashMap<String, String>(Math.min(maxSize, 256));
+		this.canonicals = new ConcurrentHashMap<String, String>(Math.min(maxSize, 256));
+	}
+
+	/**
+	 *
+	 * @param input
+	 * @return input with the first letter of every word in title case
+	 */
+	String toTitleCase(String input) {
+		String titleCase = titleCases.get(input);
+
+		if (titleCase == null) {
+			titleCase = cache(titleCases, input, titleCase(input));
+		}
+
+		return titleCase;
+	}
+
+	/**
+	 *
+	 * @param input
+	 * @return input in title case followed by {@code []}
+	 */
+	String toArrayType(String input) {
+		String arrayType = arrayTypes.get(input);
+
+		if (arrayType == null) {
+			arrayType = cache(arrayTypes, input, toTitleCase(input).concat(ARRAY_SUFFIX));
+		}
+
+		return arrayType;
+	}
+
+	/**
+	 *
+	 * @param name
+	 *            may be null
+	 * @return an equal name, the same instance for all equal names
+	 */
+	String canonical(String name) {
+		if (name == null) {
+			return null;
+		}
+
+		String canonical = canonicals.get(name);
+		return canonical != null ? canonical : cache(canonicals, name, name);
+	}
+
+	private String cache(ConcurrentMap<String, String> names, String input, String name) {
+		if (names.size() >= maxSize) {
+			return name;
+		}
+
+		String cached = names.putIfAbsent(input, name);
+		return cached != null ? cached : name;
+	}
+
+	/**
+	 * Returns the input itself when it is already in title case.
+	 *
+	 * @param input
+	 * @return
+	 */
+	static String titleCase(String input) {
+		boolean nextTitleCase = true;
+		int length = input.length();
+
+		for (int i = 0; i < length; i++) {
+			char c = input.charAt(i);
+
+			if (Character.isSpaceChar(c)) {
+				nextTitleCase = true;
+			} else if (nextTitleCase) {
+				if (Character.toTitleCase(c) != c) {
+					return convert(input, i);
+				}
+				nextTitleCase = false;
+			}
+		}
+
+		return input;
+	}
+
+	/**
+	 *
+	 * @param input
+	 * @param from
+	 *            first character to change, a word starts there
+	 * @return
+	 */
+	private static String convert(String input, int from) {
+		char[] titleCase = input.toCharArray();
+		boolean nextTitleCase = true;
+
+		for (int i = from; i < titleCase.length; i++) {
+			char c = titleCase[i];
+
+			if (Character.isSpaceChar(c)) {
+				nextTitleCase = true;
+			} else if (nextTitleCase) {
+				titleCase[i] = Character.toTitleCase(c);
+				nextTitleCase = false;
+			}
+		}
+
+		return new String(titleCase);
+	}
+}
@@ -0,0 +1,157 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.commons.lang3.StringUtils;
+
+import io.swagger.models.Operation;
+import io.swagger.models.Response;
+import io.swagger.models.properties.ArrayProperty;
+import io.swagger.models.properties.ObjectProperty;
+import io.swagger.models.properties.Property;
+import io.swagger.models.properties.RefProperty;
+
+/**
+ * Classifies the responses of an operation in a single pass. Responses below
+ * 300 are successes, whose models make up the return type and the response
+ * classes. Responses from 300 and {@code default} are errors, whose models
+ * make up the error classes. Ranges such as {@code 2XX} are classified by
+ * their first digit; other codes are ignored.
+ *
+ * @author MSANTOSH
+ *
+ */
+final class OperationResponses {
+
+	private static final Logger LOGGER = Logger.getLogger(OperationResponses.class.getName());
+
+	private static final String VOID = "void";
+
+	private final List<String> successClasses = new ArrayList<String>();
+	private final Set<String> errorClasses = new LinkedHashSet<String>();
+	private String returnType = VOID;
+
+	/**
+	 *
+	 * @param operation
+	 * @param names
+	 *            names the generated type of inline object responses and
+	 *            shares the names of the models
+	 */
+	OperationResponses(Operation operation, NameCache names) {
+		Map<String, Response> responses = operation.getResponses();
+
+		if (responses == null) {
+			return;
+		}
+
+		for (Map.Entry<String, Response> responsesEntry : responses.entrySet()) {
+			String responseCode = responsesEntry.getKey();
+			Property responseProperty = responsesEntry.getValue().getSchema();
+
+			if (isError(responseCode)) {
+				if (responseProperty instanceof RefProperty) {
+					errorClasses.add(((RefProperty) responseProperty).getSimpleRef());
+				}
+			} else if (isSuccess(responseCode)) {
+				addSuccess(responseProperty, operation, names);
+			} else if (LOGGER.isLoggable(Level.FINE)) {
+				LOGGER.fine("Ignoring Response " + responseCode + " of " + operation.getOperationId());
+			}
+		}
+	}
+
+	/**
+	 * The last success response with a model decides the return type, the
+	 * models of all of them are kept.
+	 *
+	 * @param responseProperty
+	 * @param operation
+	 * @param names
+	 */
+	private void addSuccess(Property responseProperty, Operation operation, NameCache names) {
+		if (responseProperty instanceof RefProperty) {
+			String ref = names.canonical(((RefProperty) responseProperty).getSimpleRef());
+			returnType = ref;
+			successClasses.add(ref);
+		} else if (responseProperty instanceof ArrayProperty) {
+			Property arrayResponseProperty = ((ArrayProperty) responseProperty).getItems();
+
+			if (arrayResponseProperty instanceof RefProperty) {
+				String ref = names.canonical(((RefProperty) arrayResponseProperty).getSimpleRef());
+				returnType = names.canonical(new StringBuilder().append(ref).append("[]").toString());
+				successClasses.add(ref);
+			}
+		} else if (responseProperty instanceof ObjectProperty) {
+			returnType = new StringBuilder().append(names.toTitleCase(operation.getOperationId()))
+					.append("Generated").toString();
+		}
+	}
+
+	/**
+	 *
+	 * @param responseCode
+	 * @return status code, with the X of ranges as 0, or -1 when it is none
+	 */
+	static int getStatus(String responseCode) {
+		int length = responseCode.length();
+
+		if (length == 0 || length > 9 || !Character.isDigit(responseCode.charAt(0))) {
+			return -1;
+		}
+
+		int status = 0;
+		for (int i = 0; i < length; i++) {
+			char c = responseCode.charAt(i);
+
+			if (c >= '0' && c <= '9') {
+				status = status * 10 + (c - '0');
+			} else if (c == 'X' || c == 'x') {
+				status = status * 10;
+			} else {
+				return -1;
+			}
+		}
+
+		return status;
+	}
+
+	private static boolean isError(String responseCode) {
+		return responseCode.equalsIgnoreCase("default") || getStatus(responseCode) >= 300;
+	}
+
+	private static boolean isSuccess(String responseCode) {
+		int status = getStatus(responseCode);
+		return status >= 0 && status < 300;
+	}
+
+	/**
+	 *
+	 * @return the models of the success responses, in response order
+	 */
+	List<String> getSuccessClasses() {
+		return successClasses;
+	}
+
+	/**
+	 *
+	 * @return return type of the success responses, void without a model
+	 */
+	String getReturnType() {
+		return returnType;
+	}
+
+	/**
+	 *
+	 * @return the distinct error models, comma separated, empty without any
+	 */
+	String getErrorClassName() {
+		return errorClasses.isEmpty() ? "" : StringUtils.join(errorClasses, ",");
+	}
+}
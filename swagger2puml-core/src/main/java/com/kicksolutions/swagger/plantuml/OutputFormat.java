@@ -0,0 +1,14 @@
+package com.kicksolutions.swagger.plantuml;
+
+/**
+ * What a spec streamed through {@link PlantUMLGenerator} is turned into.
+ *
+ * @author MSANTOSH
+ *
+ */
+public enum OutputFormat {
+	/** PlantUML source, written while the spec is converted */
+	PUML,
+	/** the diagram rendered by PlantUML */
+	SVG
+}
@@ -0,0 +1,199 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Converts the items of a list on a fork-join pool, returning the results in
+ * the order of the items, so the generated diagrams do not depend on how the
+ * work was scheduled. Conversions must only read shared state.
+ *
+ * <p>
+ * Called from a fork-join worker, e.g. while a batch converts many specs, the
+ * work is forked into the pool already running instead of a new one, so the
+ * machine is not oversubscribed.
+ * </p>
+ *
+ * <p>
+ * With enabled {@link ConversionMetrics}, the CPU time and allocations of
+ * chunks converted by other threads than the caller are added to the running
+ * phase.
+ * </p>
+ *
+ * @author MSANTOSH
+ *
+ */
+final class ParallelConverter {
+
+	/** smallest number of items worth handing to another thread */
+	private static final int MIN_CHUNK_SIZE = 16;
+	/** chunks per thread, leaves room for stealing when items differ in cost */
+	private static final int CHUNKS_PER_THREAD = 8;
+
+	private static final ConcurrentMap<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<Integer, ForkJoinPool>();
+
+	private final int parallelism;
+
+	/**
+	 *
+	 * @param parallelism
+	 *            threads used for a conversion, 1 converts on the calling
+	 *            thread
+	 */
+	ParallelConverter(int parallelism) {
+		this.parallelism = Math.max(1, parallelism);
+	}
+
+	/**
+	 *
+	 * @param <T>
+	 * @param <R>
+	 */
+	interface Conversion<T, R> {
+		R convert(T item);
+	}
+
+	int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 *
+	 * @param items
+	 * @param conversion
+	 * @param metrics
+	 * @return converted items, in the order of the items
+	 */
+	<T, R> List<R> convertAll(List<T> items, Conversion<T, R> conversion, ConversionMetrics metrics) {
+		return convertAll(items, conversion, metrics, MIN_CHUNK_SIZE);
+	}
+
+	/**
+	 *
+	 * @param items
+	 * @param conversion
+	 * @param metrics
+	 * @param minChunkSize
+	 *            smallest number of items handed to another thread, 1 for
+	 *            items expensive enough to convert on their own
+	 * @return converted items, in the order of the items
+	 */
+	<T, R> List<R> convertAll(List<T> items, Conversion<T, R> conversion, ConversionMetrics metrics,
+			int minChunkSize) {
+		int size = items.size();
+
+		if (parallelism == 1 || size < 2 * minChunkSize) {
+			List<R> results = new ArrayList<R>(size);
+			for (T item : items) {
+				results.add(conversion.convert(item));
+			}
+			return results;
+		}
+
+		Object[] results = new Object[size];
+		int chunkSize = Math.max(minChunkSize, size / (parallelism * CHUNKS_PER_THREAD));
+		ConversionTask<T, R> task = new ConversionTask<T, R>(items, conversion, results, 0, size, chunkSize,
+				metrics.isEnabled() ? metrics : null, Thread.currentThread());
+
+		if (ForkJoinTask.inForkJoinPool()) {
+			task.invoke();
+		} else {
+			getPool(parallelism).invoke(task);
+		}
+
+		@SuppressWarnings("unchecked")
+		List<R> converted = (List<R>) Arrays.asList(results);
+		return new ArrayList<R>(converted);
+	}
+
+	private static ForkJoinPool getPool(int parallelism) {
+		ForkJoinPool pool = POOLS.get(parallelism);
+
+		if (pool == null) {
+			// workers are daemon threads, the pool never keeps the JVM alive
+			ForkJoinPool newPool = new ForkJoinPool(parallelism);
+			pool = POOLS.putIfAbsent(parallelism, newPool);
+
+			if (pool == null) {
+				pool = newPool;
+			} else {
+				newPool.shutdown();
+			}
+		}
+
+		return pool;
+	}
+
+	/**
+	 * Splits its range in halves until it is small enough to convert directly,
+	 * storing every result at the index of its item.
+	 */
+	private static class ConversionTask<T, R> extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<T> items;
+		private final Conversion<T, R> conversion;
+		private final Object[] results;
+		private final int from;
+		private final int to;
+		private final int chunkSize;
+		private final ConversionMetrics metrics;
+		private final Thread caller;
+
+		private ConversionTask(List<T> items, Conversion<T, R> conversion, Object[] results, int from, int to,
+				int chunkSize, ConversionMetrics metrics, Thread caller) {
+			this.items = items;
+			this.conversion = conversion;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+			this.chunkSize = chunkSize;
+			this.metrics = metrics;
+			this.caller = caller;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= chunkSize) {
+				if (metrics != null && Thread.currentThread() != caller) {
+					convertMeasured();
+				} else {
+					convert();
+				}
+				return;
+			}
+
+			int middle = (from + to) >>> 1;
+			invokeAll(new ConversionTask<T, R>(items, conversion, results, from, middle, chunkSize, metrics, caller),
+					new ConversionTask<T, R>(items, conversion, results, middle, to, chunkSize, metrics, caller));
+		}
+
+		private void convert() {
+			for (int i = from; i < to; i++) {
+				results[i] = conversion.convert(items.get(i));
+			}
+		}
+
+		private void convertMeasured() {
+			long allocatedStart = ConversionMetrics.getCurrentThreadAllocatedBytes();
+			long cpuStart = ConversionMetrics.getCurrentThreadCpuNanos();
+
+			try {
+				convert();
+			} finally {
+				long cpu = ConversionMetrics.getCurrentThreadCpuNanos();
+				long allocated = ConversionMetrics.getCurrentThreadAllocatedBytes();
+
+				metrics.addWorkerUsage(cpu < 0 || cpuStart < 0 ? 0 : cpu - cpuStart,
+						allocated < 0 || allocatedStart < 0 ? 0 : allocated - allocatedStart);
+			}
+		}
+	}
+}
@@ -0,0 +1,16 @@
+package com.kicksolutions.swagger.plantuml;
+
+/**
+ * How a spec's diagram is split into partitions small enough to lay out.
+ *
+ * @author MSANTOSH
+ *
+ */
+public enum PartitionMode {
+	/** one partition per interface with the models it reaches, then the remaining models by component */
+	TAG,
+	/** connected components, small ones packed together and large ones split up to the node budget */
+	COMPONENT,
+	/** consecutive runs of connected nodes up to the node budget */
+	SIZE
+}
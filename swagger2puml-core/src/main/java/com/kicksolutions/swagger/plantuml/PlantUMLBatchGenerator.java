@@ -0,0 +1,389 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.kicksolutions.swagger.plantuml.vo.BatchResult;
+
+/**
+ * Converts many specs in one JVM. Specs are resolved from a directory, a glob
+ * pattern or a manifest file and converted on a work-stealing pool, each into
+ * its own sub directory of the output location.
+ *
+ * @author MSANTOSH
+ *
+ */
+public class PlantUMLBatchGenerator {
+
+	private static final Logger LOGGER = Logger.getLogger(PlantUMLBatchGenerator.class.getName());
+	private static final String GLOB_CHARACTERS = "*?[{";
+	private static final String ANY_DIRECTORIES = "**/";
+	private static final String[] SPEC_EXTENSIONS = { ".yaml", ".yml", ".json" };
+
+	private final PlantUMLGenerator generator;
+	private final int parallelism;
+
+	public PlantUMLBatchGenerator() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 *
+	 * @param parallelism
+	 *            number of specs converted concurrently
+	 */
+	public PlantUMLBatchGenerator(int parallelism) {
+		this(new PlantUMLGenerator(), parallelism);
+	}
+
+	/**
+	 *
+	 * @param generator
+	 *            configured generator shared by all workers
+	 * @param parallelism
+	 *            number of specs converted concurrently
+	 */
+	public PlantUMLBatchGenerator(PlantUMLGenerator generator, int parallelism) {
+		super();
+		this.generator = generator;
+		this.parallelism = Math.max(1, parallelism);
+	}
+
+	/**
+	 *
+	 * @param specSource
+	 *            directory, glob pattern or manifest listing one spec per line
+	 * @param output
+	 * @param generateDefinitionModelOnly
+	 * @param includeCardinality
+	 * @param generateSvg
+	 * @return one result per resolved spec, in resolution order
+	 */
+	public List<BatchResult> transformSwagger2Puml(String specSource, String output,
+			final boolean generateDefinitionModelOnly, final boolean includeCardinality, final boolean generateSvg) {
+		LOGGER.entering(LOGGER.getName(), "transformSwagger2Puml");
+
+		File targetLocation = new File(output);
+		if (!targetLocation.isDirectory()) {
+			throw new RuntimeException("Ouput Location is not valid");
+		}
+
+		Map<String, File> specs;
+		try {
+			specs = resolveSpecs(specSource);
+		} catch (IOException e) {
+			LOGGER.log(Level.SEVERE, e.getMessage(), e);
+			throw new RuntimeException(e);
+		}
+
+		LOGGER.info("Processing " + specs.size() + " Specs with parallelism " + parallelism);
+
+		List<Callable<BatchResult>> tasks = new ArrayList<Callable<BatchResult>>(specs.size());
+		for (Map.Entry<String, File> spec : specs.entrySet()) {
+			final File specFile = spec.getValue();
+			final File specOutput = new File(targetLocation, spec.getKey());
+
+			tasks.add(new Callable<BatchResult>() {
+				@Override
+				public BatchResult call() {
+					return transform(specFile, specOutput, generateDefinitionModelOnly, includeCardinality,
+							generateSvg);
+				}
+			});
+		}
+
+		List<BatchResult> results = new ArrayList<BatchResult>(tasks.size());
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			for (Future<BatchResult> future : pool.invokeAll(tasks)) {
+				results.add(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		} finally {
+			pool.shutdown();
+		}
+
+		logSummary(results);
+
+		LOGGER.exiting(LOGGER.getName(), "transformSwagger2Puml");
+		return results;
+	}
+
+	/**
+	 *
+	 * @param specFile
+	 * @param specOutput
+	 * @param generateDefinitionModelOnly
+	 * @param includeCardinality
+	 * @param generateSvg
+	 * @return
+	 */
+	private BatchResult transform(File specFile, File specOutput, boolean generateDefinitionModelOnly,
+			boolean includeCardinality, boolean generateSvg) {
+		long start = System.nanoTime();
+
+		try {
+			if (!specOutput.isDirectory() && !specOutput.mkdirs()) {
+				throw new IOException("Unable to create " + specOutput.getAbsolutePath());
+			}
+
+			boolean generated = generator.transformSwagger2Puml(specFile.getAbsolutePath(),
+					specOutput.getAbsolutePath(), generateDefinitionModelOnly, includeCardinality, generateSvg);
+
+			BatchResult result = new BatchResult(specFile.getPath(), specOutput.getPath(), true, null,
+					elapsedMillis(start));
+			result.setSkipped(!generated);
+			return result;
+		} catch (Exception e) {
+			LOGGER.log(Level.SEVERE, "Failed to process " + specFile, e);
+			Throwable cause = e.getCause() != null ? e.getCause() : e;
+			return new BatchResult(specFile.getPath(), specOutput.getPath(), false, String.valueOf(cause),
+					elapsedMillis(start));
+		}
+	}
+
+	/**
+	 *
+	 * @param results
+	 */
+	private void logSummary(List<BatchResult> results) {
+		StringBuilder summary = new StringBuilder("Batch Summary:");
+		int failures = 0;
+		int skipped = 0;
+
+		for (BatchResult result : results) {
+			summary.append("\n  ").append(getStatus(result)).append(result.getSpecFile()).append(" (")
+					.append(result.getElapsedMillis()).append(" ms)");
+
+			if (!result.isSuccess()) {
+				failures++;
+				summary.append(" --> ").append(result.getErrorMessage());
+			} else if (result.isSkipped()) {
+				skipped++;
+			}
+		}
+
+		summary.append("\n  ").append(results.size() - failures).append(" succeeded (").append(skipped)
+				.append(" unchanged), ").append(failures).append(" failed");
+
+		LOGGER.log(failures == 0 ? Level.INFO : Level.WARNING, summary.toString());
+	}
+
+	private static String getStatus(BatchResult result) {
+		if (!result.isSuccess()) {
+			return "FAILED  ";
+		}
+		return result.isSkipped() ? "SKIPPED " : "OK      ";
+	}
+
+	/**
+	 * Resolves the specs of a batch, keyed by the output sub directory of each.
+	 * The sub directory is the spec path relative to the batch root, without
+	 * extension.
+	 *
+	 * @param specSource
+	 *            directory, glob pattern or manifest file
+	 * @return
+	 * @throws IOException
+	 */
+	public static Map<String, File> resolveSpecs(String specSource) throws IOException {
+		List<Path> specs;
+		Path root;
+
+		if (StringUtils.containsAny(specSource, GLOB_CHARACTERS)) {
+			String pattern = specSource.replace('\\', '/');
+			int separator = pattern.lastIndexOf('/', StringUtils.indexOfAny(pattern, GLOB_CHARACTERS));
+
+			root = Paths.get(separator < 0 ? "." : pattern.substring(0, separator + 1)).toAbsolutePath().normalize();
+			specs = findSpecs(root, getGlobMatcher(pattern.substring(separator + 1)));
+		} else {
+			Path source = Paths.get(specSource).toAbsolutePath().normalize();
+
+			if (Files.isDirectory(source)) {
+				root = source;
+				specs = findSpecs(root, null);
+			} else if (Files.isRegularFile(source)) {
+				root = source.getParent();
+				specs = readManifest(source);
+			} else {
+				throw new IOException("Spec Source is not valid " + specSource);
+			}
+		}
+
+		Map<String, File> resolved = new LinkedHashMap<String, File>();
+		Set<String> names = new HashSet<String>();
+
+		for (Path spec : specs) {
+			String name = getOutputName(root, spec);
+
+			if (!names.add(name.toLowerCase())) {
+				String unique = name.concat("_").concat(getExtension(spec));
+
+				for (int suffix = 2; !names.add(unique.toLowerCase()); suffix++) {
+					unique = name.concat("_").concat(getExtension(spec)) + suffix;
+				}
+
+				LOGGER.warning("Output of " + spec + " collides with another spec, writing it to " + unique);
+				name = unique;
+			}
+
+			resolved.put(name, spec.toFile());
+		}
+
+		return resolved;
+	}
+
+	/**
+	 * Java globs need at least one directory for every <code>**&#47;</code>, so
+	 * the glob is also tried with each of them dropped, and
+	 * <code>specs/**&#47;*.yaml</code> matches <code>specs/petstore.yaml</code>
+	 * too.
+	 *
+	 * @param glob
+	 *            glob for paths relative to the batch root
+	 * @return
+	 */
+	static PathMatcher getGlobMatcher(String glob) {
+		List<String> variants = new ArrayList<String>();
+		variants.add(glob);
+
+		for (int i = 0; i < variants.size(); i++) {
+			String variant = variants.get(i);
+
+			for (int index = variant.indexOf(ANY_DIRECTORIES); index >= 0; index = variant.indexOf(ANY_DIRECTORIES,
+					index + 1)) {
+				String dropped = variant.substring(0, index) + variant.substring(index + ANY_DIRECTORIES.length());
+
+				if ((index == 0 || variant.charAt(index - 1) == '/') && !variants.contains(dropped)) {
+					variants.add(dropped);
+				}
+			}
+		}
+
+		final List<PathMatcher> matchers = new ArrayList<PathMatcher>(variants.size());
+		for (String variant : variants) {
+			matchers.add(FileSystems.getDefault().getPathMatcher("glob:" + variant));
+		}
+
+		return new PathMatcher() {
+			@Override
+			public boolean matches(Path path) {
+				for (PathMatcher matcher : matchers) {
+					if (matcher.matches(path)) {
+						return true;
+					}
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 *
+	 * @param root
+	 * @param matcher
+	 *            optional matcher for paths relative to root, spec extensions
+	 *            are used when null
+	 * @return
+	 * @throws IOException
+	 */
+	private static List<Path> findSpecs(final Path root, final PathMatcher matcher) throws IOException {
+		final List<Path> specs = new ArrayList<Path>();
+
+		if (!Files.isDirectory(root)) {
+			return specs;
+		}
+
+		Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+				if (attrs.isRegularFile()
+						&& (matcher != null ? matcher.matches(root.relativize(file)) : isSpecFile(file))) {
+					specs.add(file);
+				}
+				return FileVisitResult.CONTINUE;
+			}
+		});
+
+		Collections.sort(specs);
+		return specs;
+	}
+
+	/**
+	 *
+	 * @param manifest
+	 * @return
+	 * @throws IOException
+	 */
+	private static List<Path> readManifest(Path manifest) throws IOException {
+		List<Path> specs = new ArrayList<Path>();
+
+		for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+			String entry = line.trim();
+
+			if (StringUtils.isNotEmpty(entry) && !entry.startsWith("#")) {
+				specs.add(manifest.getParent().resolve(entry).toAbsolutePath().normalize());
+			}
+		}
+
+		return specs;
+	}
+
+	private static boolean isSpecFile(Path file) {
+		String name = file.getFileName().toString().toLowerCase();
+
+		for (String extension : SPEC_EXTENSIONS) {
+			if (name.endsWith(extension)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String getOutputName(Path root, Path spec) {
+		Path relative = spec.startsWith(root) ? root.relativize(spec) : spec.getFileName();
+		String name = relative.toString().replace('\\', '/');
+		int extension = name.lastIndexOf('.');
+
+		return extension > name.lastIndexOf('/') + 1 ? name.substring(0, extension) : name;
+	}
+
+	private static String getExtension(Path spec) {
+		String name = spec.getFileName().toString();
+		int extension = name.lastIndexOf('.');
+
+		return extension < 0 ? "" : name.substring(extension + 1);
+	}
+
+	private static long elapsedMillis(long start) {
+		return (System.nanoTime() - start) / 1000000L;
+	}
+}
@@ -6,10 +6,14 @@ package com.kicksolutions.swagger.plantuml;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.io.Writer;
+import java.util.AbstractMap;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.logging.Level;
@@ -17,14 +21,15 @@ import java.util.logging.Logger;
 
 import org.apache.commons.lang3.StringUtils;
 
-import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.Mustache;
-import com.github.mustachejava.MustacheFactory;
+import com.kicksolutions.swagger.plantuml.vo.Cardinality;
 import com.kicksolutions.swagger.plantuml.vo.ClassDiagram;
 import com.kicksolutions.swagger.plantuml.vo.ClassMembers;
 import com.kicksolutions.swagger.plantuml.vo.ClassRelation;
+import com.kicksolutions.swagger.plantuml.vo.DiagramPartition;
 import com.kicksolutions.swagger.plantuml.vo.InterfaceDiagram;
 import com.kicksolutions.swagger.plantuml.vo.MethodDefinitions;
+import com.kicksolutions.swagger.plantuml.vo.RelationKind;
 
 import io.swagger.models.ArrayModel;
 import io.swagger.models.ComposedModel;
@@ -33,7 +38,6 @@ import io.swagger.models.ModelImpl;
 import io.swagger.models.Operation;
 import io.swagger.models.Path;
 import io.swagger.models.RefModel;
-import io.swagger.models.Response;
 import io.swagger.models.Swagger;
 import io.swagger.models.parameters.BodyParameter;
 import io.swagger.models.parameters.FormParameter;
@@ -41,7 +45,6 @@ import io.swagger.models.parameters.Parameter;
 import io.swagger.models.parameters.PathParameter;
 import io.swagger.models.parameters.QueryParameter;
 import io.swagger.models.properties.ArrayProperty;
-import io.swagger.models.properties.ObjectProperty;
 import io.swagger.models.properties.Property;
 import io.swagger.models.properties.RefProperty;
 import io.swagger.models.properties.StringProperty;
@@ -56,12 +59,23 @@ public class PlantUMLCodegen {
 
 	private boolean generateDefinitionModelOnly = false;
 	private boolean includeCardinality = true;
+	private boolean streamingEmitter = false;
+	private String templatePath;
+	private ParallelConverter converter = new ParallelConverter(1);
+	private ConversionMetrics metrics = ConversionMetrics.DISABLED;
+	private PartitionMode partitionMode;
+	private int maxNodes = DEFAULT_MAX_NODES;
+	private boolean svgLinks = false;
+	private DiagramFocus focus;
+	private DiagramFocus.Selection selection;
+	private final NameCache names = new NameCache(NAME_CACHE_SIZE);
+	private ModelFlattener flattener;
+	private ModelIndex index;
 	private Swagger swagger;
 	private File targetLocation;
-	private static final String CARDINALITY_ONE_TO_MANY = "1..*";
-	private static final String CARDINALITY_NONE_TO_MANY = "0..*";
-	private static final String CARDINALITY_ONE_TO_ONE = "1..1";
-	private static final String CARDINALITY_NONE_TO_ONE = "0..1";
+	private static final int STREAMING_ITEMS_PER_THREAD = 256;
+	public static final int DEFAULT_MAX_NODES = 100;
+	private static final int NAME_CACHE_SIZE = 16384;
 
 	/**
 	 * 
@@ -74,42 +88,358 @@ public class PlantUMLCodegen {
 		this.includeCardinality = includeCardinality;
 	}
 
+	/**
+	 * 
+	 * @param streamingEmitter
+	 *            write PUML directly while processing instead of rendering
+	 *            puml.mustache over the complete diagram model
+	 */
+	public void setStreamingEmitter(boolean streamingEmitter) {
+		this.streamingEmitter = streamingEmitter;
+	}
+
+	/**
+	 * 
+	 * @param templatePath
+	 *            Mustache template file used instead of the bundled
+	 *            puml.mustache
+	 */
+	public void setTemplatePath(String templatePath) {
+		this.templatePath = templatePath;
+	}
+
+	/**
+	 * 
+	 * @param parallelism
+	 *            threads converting the models and operations of the spec, the
+	 *            output does not depend on it
+	 */
+	public void setParallelism(int parallelism) {
+		this.converter = new ParallelConverter(parallelism);
+	}
+
+	/**
+	 * 
+	 * @param metrics
+	 *            receives the cost of every conversion phase, and emits them
+	 *            as Flight Recorder events
+	 */
+	public void setMetrics(ConversionMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * 
+	 * @param partitionMode
+	 *            splits the diagram with {@link #generatePartitionedPuml()},
+	 *            null for a single diagram
+	 * @param maxNodes
+	 *            most models and interfaces in a partition
+	 */
+	public void setPartitioning(PartitionMode partitionMode, int maxNodes) {
+		if (maxNodes < 1) {
+			throw new IllegalArgumentException("maxNodes must be positive: " + maxNodes);
+		}
+
+		this.partitionMode = partitionMode;
+		this.maxNodes = maxNodes;
+	}
+
+	/**
+	 * 
+	 * @param svgLinks
+	 *            links the partitions on the index diagram to their SVGs, for
+	 *            when the SVGs are rendered next to the PUML
+	 */
+	public void setSvgLinks(boolean svgLinks) {
+		this.svgLinks = svgLinks;
+	}
+
+	/**
+	 * 
+	 * @param focus
+	 *            converts only the models and operations in focus, null or
+	 *            empty for the whole spec
+	 */
+	public void setFocus(DiagramFocus focus) {
+		this.focus = focus;
+		this.selection = null;
+	}
+
 	/**
 	 * 
 	 */
 	public String generatePuml() throws IOException, IllegalAccessException {
 		LOGGER.entering(LOGGER.getName(), "generatePuml");
 
-		Map<String, Object> additionalProperties = preprocessSwagger(swagger);
-
-		MustacheFactory mf = new DefaultMustacheFactory();
-		Mustache mustache = mf.compile("puml.mustache");
-		Writer writer = null;
 		String pumlPath = new StringBuilder().append(targetLocation.getAbsolutePath()).append(File.separator)
 				.append("swagger.puml").toString();
+		Writer writer = new FileWriter(pumlPath);
 		try {
-			writer = new FileWriter(pumlPath);
-			mustache.execute(writer, additionalProperties);
+			generatePuml(writer);
 
 			LOGGER.log(Level.FINEST, "Sucessfully Written Puml File @ " + pumlPath);
+		} finally {
+			writer.close();
+		}
+
+		LOGGER.exiting(LOGGER.getName(), "generatePuml");
+		return pumlPath;
+	}
+
+	/**
+	 * 
+	 * @param writer
+	 *            receives the PUML source, flushed but left open
+	 */
+	public void generatePuml(Writer writer) throws IOException, IllegalAccessException {
+		LOGGER.entering(LOGGER.getName(), "generatePuml");
+
+		if (streamingEmitter && StringUtils.isEmpty(templatePath)) {
+			emitPuml(writer);
+			LOGGER.exiting(LOGGER.getName(), "generatePuml");
+			return;
+		} else if (streamingEmitter) {
+			LOGGER.warning("Streaming emitter only supports the default template, rendering " + templatePath);
+		}
+
+		Map<String, Object> additionalProperties = preprocessSwagger(swagger);
+
+		ConversionMetrics.Phase phase = metrics.begin("emit");
+		Mustache mustache = TemplateRegistry.getInstance().getTemplate(templatePath);
+		try {
+			mustache.execute(writer, additionalProperties);
 		} catch (Exception e) {
 			LOGGER.log(Level.SEVERE, e.getMessage(), e);
 			throw new IllegalAccessException(e.getMessage());
 		} finally {
-			if (writer != null) {
-				writer.flush();
-			}
+			writer.flush();
 		}
+		phase.end();
 
 		LOGGER.exiting(LOGGER.getName(), "generatePuml");
-		return pumlPath;
+	}
+
+	/**
+	 * Writes every partition to its own {@code swagger-<n>-<name>.puml} and an
+	 * index diagram linking them to {@code swagger.puml}, so each partition is
+	 * laid out on its own.
+	 * 
+	 * @return the index followed by the partitions, each with the PUML source
+	 *         written to it
+	 */
+	public Map<File, String> generatePartitionedPuml() throws IOException, IllegalAccessException {
+		LOGGER.entering(LOGGER.getName(), "generatePartitionedPuml");
+
+		if (partitionMode == null) {
+			throw new IllegalStateException("No partition mode set");
+		}
+
+		List<ClassDiagram> classDiagrams = processSwaggerModels(swagger);
+		List<InterfaceDiagram> interfaceDiagrams = generateDefinitionModelOnly
+				? Collections.<InterfaceDiagram>emptyList() : processSwaggerPaths(swagger);
+		List<ClassRelation> relations = getRelations(classDiagrams, interfaceDiagrams);
+
+		ConversionMetrics.Phase phase = metrics.begin("partition");
+		DiagramPartitioner partitioner = new DiagramPartitioner(partitionMode, maxNodes);
+		List<DiagramPartition> partitions = partitioner.partition(classDiagrams, interfaceDiagrams, relations);
+		phase.end();
+		LOGGER.info("Partitioned " + classDiagrams.size() + " Models and " + interfaceDiagrams.size()
+				+ " Interfaces into " + partitions.size() + " Diagrams");
+
+		phase = metrics.begin("emit");
+		Map<File, String> pumlSources = new LinkedHashMap<File, String>(partitions.size() * 2 + 2);
+		File indexFile = new File(targetLocation, "swagger.puml");
+		pumlSources.put(indexFile, null);
+
+		for (DiagramPartition partition : partitions) {
+			File pumlFile = new File(targetLocation, partition.getFileName() + ".puml");
+			pumlSources.put(pumlFile, writePartition(pumlFile, partition));
+		}
+
+		Map<String, Object> indexProperties = new TreeMap<String, Object>();
+		indexProperties.put("title", swagger.getInfo().getTitle());
+		indexProperties.put("version", swagger.getInfo().getVersion());
+		indexProperties.put("partitionMode", partitionMode.name().toLowerCase(Locale.ENGLISH));
+		indexProperties.put("partitions", partitions);
+		indexProperties.put("partitionRelations", partitioner.link(partitions));
+		indexProperties.put("svgLinks", svgLinks);
+		pumlSources.put(indexFile,
+				writeTemplate(indexFile, TemplateRegistry.getInstance().getIndexTemplate(), indexProperties));
+		phase.end();
+
+		LOGGER.exiting(LOGGER.getName(), "generatePartitionedPuml");
+		return pumlSources;
+	}
+
+	/**
+	 * Converts the models and interfaces in focus as for a diagram, without
+	 * writing anything.
+	 * 
+	 * @return the graph of their relations
+	 */
+	public RelationGraph buildRelationGraph() {
+		LOGGER.entering(LOGGER.getName(), "buildRelationGraph");
+
+		List<ClassDiagram> classDiagrams = processSwaggerModels(swagger);
+		List<InterfaceDiagram> interfaceDiagrams = generateDefinitionModelOnly
+				? Collections.<InterfaceDiagram>emptyList() : processSwaggerPaths(swagger);
+		RelationGraph graph = new RelationGraph(classDiagrams, interfaceDiagrams,
+				getRelations(classDiagrams, interfaceDiagrams));
+
+		LOGGER.exiting(LOGGER.getName(), "buildRelationGraph");
+		return graph;
+	}
+
+	/**
+	 * 
+	 * @param pumlFile
+	 * @param partition
+	 * @return the PUML source written
+	 */
+	private String writePartition(File pumlFile, DiagramPartition partition)
+			throws IOException, IllegalAccessException {
+		String title = new StringBuilder().append(swagger.getInfo().getTitle()).append(" - ")
+				.append(partition.getName()).toString();
+
+		if (streamingEmitter && StringUtils.isEmpty(templatePath)) {
+			StringWriter writer = new StringWriter();
+			PlantUMLStreamEmitter emitter = new PlantUMLStreamEmitter(writer);
+			emitter.writeHeader();
+			for (ClassDiagram classDiagram : partition.getClassDiagrams()) {
+				emitter.writeClass(classDiagram);
+			}
+			for (InterfaceDiagram interfaceDiagram : partition.getInterfaceDiagrams()) {
+				emitter.writeInterface(interfaceDiagram);
+			}
+			for (ClassRelation relation : partition.getEntityRelations()) {
+				emitter.writeRelation(relation);
+			}
+			emitter.writeFooter(title, swagger.getInfo().getVersion());
+
+			String pumlSource = writer.toString();
+			writeSource(pumlFile, pumlSource);
+			return pumlSource;
+		}
+
+		Map<String, Object> additionalProperties = new TreeMap<String, Object>();
+		additionalProperties.put("title", title);
+		additionalProperties.put("version", swagger.getInfo().getVersion());
+		additionalProperties.put("classDiagrams", partition.getClassDiagrams());
+		if (!generateDefinitionModelOnly) {
+			additionalProperties.put("interfaceDiagrams", partition.getInterfaceDiagrams());
+		}
+		additionalProperties.put("entityRelations", partition.getEntityRelations());
+
+		return writeTemplate(pumlFile, TemplateRegistry.getInstance().getTemplate(templatePath),
+				additionalProperties);
+	}
+
+	/**
+	 * 
+	 * @param pumlFile
+	 * @param mustache
+	 * @param properties
+	 * @return the PUML source written
+	 */
+	private String writeTemplate(File pumlFile, Mustache mustache, Map<String, Object> properties)
+			throws IOException, IllegalAccessException {
+		StringWriter writer = new StringWriter();
+		try {
+			mustache.execute(writer, properties).flush();
+		} catch (Exception e) {
+			LOGGER.log(Level.SEVERE, e.getMessage(), e);
+			throw new IllegalAccessException(e.getMessage());
+		}
+
+		String pumlSource = writer.toString();
+		writeSource(pumlFile, pumlSource);
+		return pumlSource;
+	}
+
+	/**
+	 * 
+	 * @param pumlFile
+	 * @param pumlSource
+	 */
+	private static void writeSource(File pumlFile, String pumlSource) throws IOException {
+		Writer writer = new FileWriter(pumlFile);
+		try {
+			writer.write(pumlSource);
+		} finally {
+			writer.close();
+		}
+
+		LOGGER.log(Level.FINEST, "Sucessfully Written Puml File @ " + pumlFile);
+	}
+
+	/**
+	 * Writes the PUML while walking the definitions and paths, keeping only the
+	 * relations in memory until they are written at the end.
+	 * 
+	 * @param writer
+	 */
+	private void emitPuml(Writer writer) throws IOException {
+		LOGGER.entering(LOGGER.getName(), "emitPuml");
+
+		PlantUMLStreamEmitter emitter = new PlantUMLStreamEmitter(writer);
+		RelationIndex relations = new RelationIndex(false);
+		Map<String, Model> modelsMap = swagger.getDefinitions();
+
+		emitter.writeHeader();
+
+		// converted a window at a time, so only a window of diagrams is held
+		List<Map.Entry<String, Model>> models = getModels(modelsMap);
+		ConversionMetrics.Phase phase = metrics.begin("models");
+		int window = converter.getParallelism() * STREAMING_ITEMS_PER_THREAD;
+
+		for (int from = 0; from < models.size(); from += window) {
+			List<Map.Entry<String, Model>> modelsWindow = models.subList(from, Math.min(from + window, models.size()));
+
+			for (ClassDiagram classDiagram : convertModels(modelsWindow, modelsMap)) {
+				emitter.writeClass(classDiagram);
+				relations.addAll(classDiagram.getChildClass());
+			}
+		}
+		metrics.setModels(models.size());
+		phase.end();
+
+		if (!generateDefinitionModelOnly) {
+			phase = metrics.begin("paths");
+			List<Map.Entry<String, Operation>> operations = getOperations(swagger.getPaths());
+			InterfaceIndex interfaces = new InterfaceIndex();
+
+			// interfaces are only complete once every operation has been merged
+			for (int from = 0; from < operations.size(); from += window) {
+				interfaces.addAll(convertOperations(
+						operations.subList(from, Math.min(from + window, operations.size()))));
+			}
+
+			for (InterfaceDiagram interfaceDiagram : interfaces.getInterfaces()) {
+				emitter.writeInterface(interfaceDiagram);
+				relations.addAll(interfaceDiagram.getChildClass());
+			}
+			metrics.setOperations(operations.size());
+			phase.end();
+		}
+
+		phase = metrics.begin("emit");
+		for (ClassRelation relation : relations.getRelations()) {
+			emitter.writeRelation(relation);
+		}
+
+		emitter.writeFooter(swagger.getInfo().getTitle(), swagger.getInfo().getVersion());
+		metrics.setRelations(relations.size());
+		phase.end();
+
+		LOGGER.exiting(LOGGER.getName(), "emitPuml");
 	}
 
 	/**
 	 * 
 	 * @param swagger
 	 */
-	private Map<String, Object> preprocessSwagger(Swagger swagger) {
+	Map<String, Object> preprocessSwagger(Swagger swagger) {
 		LOGGER.entering(LOGGER.getName(), "preprocessSwagger");
 
 		Map<String, Object> additionalProperties = new TreeMap<String, Object>();
@@ -140,12 +470,17 @@ public class PlantUMLCodegen {
 	 * @param interfaceDiagrams
 	 * @return
 	 */
-	private List<ClassRelation> getRelations(List<ClassDiagram> classDiagrams,List<InterfaceDiagram> interfaceDiagrams){
+	List<ClassRelation> getRelations(List<ClassDiagram> classDiagrams,List<InterfaceDiagram> interfaceDiagrams){
+		ConversionMetrics.Phase phase = metrics.begin("relations");
+		
 		List<ClassRelation> relations = new ArrayList<ClassRelation>();
 		relations.addAll(getAllModelRelations(classDiagrams));
 		relations.addAll(getAllInterfacesRelations(interfaceDiagrams));
+		List<ClassRelation> uniqueRelations = filterUnique(relations,false);
 		
-		return filterUnique(relations,false);
+		metrics.setRelations(uniqueRelations.size());
+		phase.end();
+		return uniqueRelations;
 	}
 	
 	/**
@@ -157,12 +492,7 @@ public class PlantUMLCodegen {
 		List<ClassRelation> modelRelations = new ArrayList<ClassRelation>(); 
 		
 		for(ClassDiagram classDiagram: classDiagrams){
-			 List<ClassRelation> classRelations = classDiagram.getChildClass();
-			 
-			 for(ClassRelation classRelation: classRelations){
-				 classRelation.setSourceClass(classDiagram.getClassName());
-				 modelRelations.add(classRelation);
-			 }
+			 modelRelations.addAll(classDiagram.getChildClass());
 		}		
 		
 		return modelRelations;
@@ -177,12 +507,7 @@ public class PlantUMLCodegen {
 		List<ClassRelation> modelRelations = new ArrayList<ClassRelation>(); 
 		
 		for(InterfaceDiagram classDiagram: interfaceDiagrams){
-			 List<ClassRelation> classRelations = classDiagram.getChildClass();
-			 
-			 for(ClassRelation classRelation: classRelations){
-				classRelation.setSourceClass(classDiagram.getInterfaceName());
-				modelRelations.add(classRelation);
-			 }
+			 modelRelations.addAll(classDiagram.getChildClass());
 		}		
 		
 		return modelRelations;
@@ -191,28 +516,106 @@ public class PlantUMLCodegen {
 	/**
 	 * 
 	 * @param swagger
-	 * @return
+	 * @return one diagram per interface, merging all of its operations
 	 */
-	private List<InterfaceDiagram> processSwaggerPaths(Swagger swagger) {
+	List<InterfaceDiagram> processSwaggerPaths(Swagger swagger) {
 		LOGGER.entering(LOGGER.getName(), "processSwaggerPaths");
-		List<InterfaceDiagram> interfaceDiagrams = new ArrayList<InterfaceDiagram>();
+		ConversionMetrics.Phase phase = metrics.begin("paths");
+
 		Map<String, Path> paths = swagger.getPaths();
+		List<Map.Entry<String, Operation>> operations = getOperations(paths);
+		List<InterfaceDiagram> interfaceDiagrams = new InterfaceIndex().addAll(convertOperations(operations))
+				.getInterfaces();
 
-		for (Map.Entry<String, Path> entry : paths.entrySet()) {
-			Path pathObject = entry.getValue();
+		metrics.setOperations(operations.size());
+		phase.end();
+		LOGGER.info("Processed " + operations.size() + " Operations of " + paths.size() + " Paths into "
+				+ interfaceDiagrams.size() + " Interfaces");
+
+		LOGGER.exiting(LOGGER.getName(), "processSwaggerPaths");
+		return interfaceDiagrams;
+	}
+
+	/**
+	 * 
+	 * @param modelsMap
+	 * @return the models in focus, in definition order
+	 */
+	private List<Map.Entry<String, Model>> getModels(Map<String, Model> modelsMap) {
+		DiagramFocus.Selection focused = getSelection();
+
+		if (focused == null) {
+			return new ArrayList<Map.Entry<String, Model>>(modelsMap.entrySet());
+		}
+
+		List<Map.Entry<String, Model>> models = new ArrayList<Map.Entry<String, Model>>();
+		for (Map.Entry<String, Model> model : modelsMap.entrySet()) {
+			if (focused.containsModel(model.getKey())) {
+				models.add(model);
+			}
+		}
+
+		return models;
+	}
+
+	/**
+	 * Resolved once, before anything is converted.
+	 * 
+	 * @return null when the whole spec is converted
+	 */
+	private DiagramFocus.Selection getSelection() {
+		if (selection == null && focus != null && !focus.isEmpty()) {
+			ConversionMetrics.Phase phase = metrics.begin("focus");
+			selection = focus.select(swagger);
+			phase.end();
+		}
+
+		return selection;
+	}
 
-			LOGGER.info("Processing Path --> " + entry.getKey());
+	/**
+	 * 
+	 * @param paths
+	 * @return every operation in focus with its uri, in path order
+	 */
+	private List<Map.Entry<String, Operation>> getOperations(Map<String, Path> paths) {
+		List<Map.Entry<String, Operation>> operations = new ArrayList<Map.Entry<String, Operation>>();
+		DiagramFocus.Selection focused = getSelection();
+		boolean logPaths = LOGGER.isLoggable(Level.FINE);
 
-			List<Operation> operations = pathObject.getOperations();
+		for (Map.Entry<String, Path> entry : paths.entrySet()) {
 			String uri = entry.getKey();
 
-			for (Operation operation : operations) {
-				interfaceDiagrams.add(getInterfaceDiagram(operation, uri));
+			if (logPaths) {
+				LOGGER.fine("Processing Path --> " + uri);
+			}
+
+			for (Operation operation : entry.getValue().getOperations()) {
+				if (focused != null && !focused.containsOperation(operation)) {
+					continue;
+				}
+				operations.add(new AbstractMap.SimpleImmutableEntry<String, Operation>(uri, operation));
 			}
 		}
 
-		LOGGER.exiting(LOGGER.getName(), "processSwaggerPaths");
-		return interfaceDiagrams;
+		return operations;
+	}
+
+	/**
+	 * Operations only read the spec, so they are spread over the converter's
+	 * threads like the models.
+	 * 
+	 * @param operations
+	 * @return interface diagrams in the order of the operations
+	 */
+	private List<InterfaceDiagram> convertOperations(List<Map.Entry<String, Operation>> operations) {
+		return converter.convertAll(operations,
+				new ParallelConverter.Conversion<Map.Entry<String, Operation>, InterfaceDiagram>() {
+					@Override
+					public InterfaceDiagram convert(Map.Entry<String, Operation> operation) {
+						return getInterfaceDiagram(operation.getValue(), operation.getKey());
+					}
+				}, metrics);
 	}
 
 	/**
@@ -223,13 +626,13 @@ public class PlantUMLCodegen {
 	private InterfaceDiagram getInterfaceDiagram(Operation operation, String uri) {
 		LOGGER.entering(LOGGER.getName(), "getInterfaceDiagram");
 
-		InterfaceDiagram interfaceDiagram = new InterfaceDiagram();
 		String interfaceName = getInterfaceName(operation.getTags(), operation, uri);
-		String errorClassName = getErrorClassName(operation);
-		interfaceDiagram.setInterfaceName(interfaceName);
-		interfaceDiagram.setErrorClass(errorClassName);
-		interfaceDiagram.setMethods(getInterfaceMethods(operation));
-		interfaceDiagram.setChildClass(getInterfaceRelations(operation,errorClassName));
+		OperationResponses responses = new OperationResponses(operation, names);
+		String errorClassName = names.canonical(responses.getErrorClassName());
+		InterfaceDiagram interfaceDiagram = new InterfaceDiagram(interfaceName,
+				getInterfaceMethods(operation, responses.getReturnType(), errorClassName),
+				getInterfaceRelations(interfaceName, operation, responses.getSuccessClasses(), errorClassName),
+				errorClassName);
 
 		LOGGER.exiting(LOGGER.getName(), "getInterfaceDiagram");
 		return interfaceDiagram;
@@ -237,16 +640,22 @@ public class PlantUMLCodegen {
 
 	/**
 	 * 
+	 * @param interfaceName
 	 * @param operation
+	 * @param successClasses
+	 * @param errorClassName
 	 * @return
 	 */
-	private List<ClassRelation> getInterfaceRelations(Operation operation,String errorClassName) {
+	private List<ClassRelation> getInterfaceRelations(String interfaceName, Operation operation,
+			List<String> successClasses, String errorClassName) {
 		List<ClassRelation> relations = new ArrayList<ClassRelation>();
-		relations.addAll(getInterfaceRelatedResponses(operation));
-		relations.addAll(getInterfaceRelatedInputs(operation));
+		for (String successClass : successClasses) {
+			relations.add(getInterfaceRelation(interfaceName, successClass));
+		}
+		relations.addAll(getInterfaceRelatedInputs(interfaceName, operation));
 		if(StringUtils.isNotEmpty(errorClassName))
 		{
-			relations.add(getErrorClass(errorClassName));
+			relations.add(getInterfaceRelation(interfaceName, errorClassName));
 		}
 		
 		return filterUnique(relations,true);
@@ -258,68 +667,26 @@ public class PlantUMLCodegen {
 	 * @return
 	 */
 	private List<ClassRelation> filterUnique(List<ClassRelation> relations,boolean compareTargetOnly){
-		List<ClassRelation> uniqueList = new ArrayList<ClassRelation>();
-		
-		for(ClassRelation relation: relations){			
-			if(!isTargetClassInMap(relation, uniqueList,compareTargetOnly)){
-				uniqueList.add(relation);
-			}
-		}
-		
-		return uniqueList;
+		return new RelationIndex(compareTargetOnly, relations.size()).addAll(relations).getRelations();
 	}
 	
 	/**
 	 * 
-	 * @param className
-	 * @param relatedResponses
+	 * @param interfaceName
+	 * @param targetClass
 	 * @return
 	 */
-	private boolean isTargetClassInMap(ClassRelation sourceRelation, List<ClassRelation> relatedResponses,boolean considerTargetOnly) {
-		for (ClassRelation relation : relatedResponses) {
-			
-			if(considerTargetOnly){
-				if(StringUtils.isNotEmpty(relation.getTargetClass()) && StringUtils.isNotEmpty(sourceRelation.getTargetClass())
-						&& relation.getTargetClass().equalsIgnoreCase(sourceRelation.getTargetClass())){
-					return true;
-				}
-			}
-			else{
-				if(StringUtils.isNotEmpty(relation.getSourceClass()) 
-						&& StringUtils.isNotEmpty(sourceRelation.getSourceClass()) 
-						&& StringUtils.isNotEmpty(relation.getTargetClass())
-						&& StringUtils.isNotEmpty(sourceRelation.getTargetClass())
-						&& relation.getSourceClass().equalsIgnoreCase(sourceRelation.getSourceClass()) 
-						&& relation.getTargetClass().equalsIgnoreCase(sourceRelation.getTargetClass())){
-					
-					return true;
-				}
-			}
-		}
-
-		return false;
-	}
-	
-	/**
-	 * 
-	 * @param errorClassName
-	 * @return
-	 */
-	private ClassRelation getErrorClass(String errorClassName){
-		ClassRelation classRelation = new ClassRelation();
-		classRelation.setTargetClass(errorClassName);
-		classRelation.setComposition(false);
-		classRelation.setExtension(true);
-				
-		return classRelation;
+	private ClassRelation getInterfaceRelation(String interfaceName, String targetClass){
+		return new ClassRelation(interfaceName, targetClass, RelationKind.EXTENSION, null);
 	}
 	
 	/**
 	 * 
+	 * @param interfaceName
 	 * @param operation
 	 * @return
 	 */
-	private List<ClassRelation> getInterfaceRelatedInputs(Operation operation) {
+	private List<ClassRelation> getInterfaceRelatedInputs(String interfaceName, Operation operation) {
 		List<ClassRelation> relatedResponses = new ArrayList<ClassRelation>();
 		List<Parameter> parameters = operation.getParameters();
 
@@ -328,23 +695,14 @@ public class PlantUMLCodegen {
 				Model bodyParameter = ((BodyParameter) parameter).getSchema();
 
 				if (bodyParameter instanceof RefModel) {
-
-					ClassRelation classRelation = new ClassRelation();
-					classRelation.setTargetClass(((RefModel) bodyParameter).getSimpleRef());
-					classRelation.setComposition(false);
-					classRelation.setExtension(true);
-
-					relatedResponses.add(classRelation);
+					relatedResponses.add(getInterfaceRelation(interfaceName,
+							names.canonical(((RefModel) bodyParameter).getSimpleRef())));
 				} else if (bodyParameter instanceof ArrayModel) {
 					Property propertyObject = ((ArrayModel) bodyParameter).getItems();
 
 					if (propertyObject instanceof RefProperty) {
-						ClassRelation classRelation = new ClassRelation();
-						classRelation.setTargetClass(((RefProperty) propertyObject).getSimpleRef());
-						classRelation.setComposition(false);
-						classRelation.setExtension(true);
-
-						relatedResponses.add(classRelation);
+						relatedResponses.add(getInterfaceRelation(interfaceName,
+								names.canonical(((RefProperty) propertyObject).getSimpleRef())));
 					}
 				}
 			}
@@ -358,59 +716,12 @@ public class PlantUMLCodegen {
 	 * @param operation
 	 * @return
 	 */
-	private List<ClassRelation> getInterfaceRelatedResponses(Operation operation) {
-		List<ClassRelation> relatedResponses = new ArrayList<ClassRelation>();
-		Map<String,Response> responses = operation.getResponses();
-		
-		for (Map.Entry<String, Response> responsesEntry : responses.entrySet()){			
-			String responseCode = responsesEntry.getKey();
-			
-			if (!(responseCode.equalsIgnoreCase("default") || Integer.parseInt(responseCode) >= 300)) {
-				Property responseProperty = responsesEntry.getValue().getSchema();
-				
-				if(responseProperty instanceof RefProperty){
-					ClassRelation relation = new ClassRelation();
-					relation.setTargetClass(((RefProperty)responseProperty).getSimpleRef());
-					relation.setComposition(false);
-					relation.setExtension(true);
-					
-					relatedResponses.add(relation);
-				}
-				else if (responseProperty instanceof ArrayProperty){
-					ArrayProperty arrayObject =  (ArrayProperty)responseProperty;
-					Property arrayResponseProperty = arrayObject.getItems();
-					
-					if(arrayResponseProperty instanceof RefProperty){
-						ClassRelation relation = new ClassRelation();
-						relation.setTargetClass(((RefProperty)arrayResponseProperty).getSimpleRef());
-						relation.setComposition(false);
-						relation.setExtension(true);
-						
-						relatedResponses.add(relation);
-					}
-				}
-			}
-			
-		}
-		
-		return relatedResponses;
-	}
+	private List<MethodDefinitions> getInterfaceMethods(Operation operation, String returnType,
+			String errorClassName) {
+		String methodDefinition = new StringBuilder().append(operation.getOperationId()).append("(")
+				.append(getMethodParameters(operation)).append(")").toString();
 
-	/**
-	 * 
-	 * @param operation
-	 * @return
-	 */
-	private List<MethodDefinitions> getInterfaceMethods(Operation operation) {
-		List<MethodDefinitions> interfaceMethods = new ArrayList<MethodDefinitions>();
-		MethodDefinitions methodDefinitions = new MethodDefinitions();
-		methodDefinitions.setMethodDefinition(new StringBuilder().append(operation.getOperationId()).append("(")
-				.append(getMethodParameters(operation)).append(")").toString());
-		methodDefinitions.setReturnType(getInterfaceReturnType(operation));
-
-		interfaceMethods.add(methodDefinitions);
-
-		return interfaceMethods;
+		return Collections.singletonList(new MethodDefinitions(returnType, methodDefinition, errorClassName));
 	}
 
 	/**
@@ -473,68 +784,6 @@ public class PlantUMLCodegen {
 		return methodParameter;
 	}
 
-	/**
-	 * 
-	 * @param operation
-	 * @return
-	 */
-	private String getInterfaceReturnType(Operation operation) {
-		String returnType = "void";
-
-		Map<String, Response> responses = operation.getResponses();
-		for (Map.Entry<String, Response> responsesEntry : responses.entrySet()) {
-			String responseCode = responsesEntry.getKey();
-
-			if (!(responseCode.equalsIgnoreCase("default") || Integer.parseInt(responseCode) >= 300)) {
-				Property responseProperty = responsesEntry.getValue().getSchema();
-
-				if (responseProperty instanceof RefProperty) {
-					returnType = ((RefProperty) responseProperty).getSimpleRef();
-				} else if (responseProperty instanceof ArrayProperty) {
-					Property arrayResponseProperty = ((ArrayProperty) responseProperty).getItems();
-					if (arrayResponseProperty instanceof RefProperty) {
-						returnType = new StringBuilder().append(((RefProperty) arrayResponseProperty).getSimpleRef())
-								.append("[]").toString();
-					}
-				} else if (responseProperty instanceof ObjectProperty) {
-					returnType = new StringBuilder().append(toTitleCase(operation.getOperationId())).append("Generated")
-							.toString();
-				}
-			}
-		}
-
-		return returnType;
-	}
-
-	/**
-	 * 
-	 * @param operation
-	 * @return
-	 */
-	private String getErrorClassName(Operation operation) {
-		StringBuilder errorClass = new StringBuilder();
-		Map<String, Response> responses = operation.getResponses();
-		for (Map.Entry<String, Response> responsesEntry : responses.entrySet()) {
-			String responseCode = responsesEntry.getKey();
-
-			if (responseCode.equalsIgnoreCase("default") || Integer.parseInt(responseCode) >= 300) {
-				Property responseProperty = responsesEntry.getValue().getSchema();
-
-				if (responseProperty instanceof RefProperty) {
-					String errorClassName = ((RefProperty) responseProperty).getSimpleRef();
-					if (!errorClass.toString().contains(errorClassName)) {
-						if (StringUtils.isNotEmpty(errorClass)) {
-							errorClass.append(",");
-						}
-						errorClass.append(errorClassName);
-					}
-				}
-			}
-		}
-
-		return errorClass.toString();
-	}
-
 	/**
 	 * 
 	 * @param tags
@@ -553,7 +802,7 @@ public class PlantUMLCodegen {
 			interfaceName = toTitleCase(uri.replaceAll("{", "").replaceAll("}", "").replaceAll("\\", ""));
 		}
 
-		return new StringBuilder().append(interfaceName).append("Api").toString();
+		return names.canonical(new StringBuilder().append(interfaceName).append("Api").toString());
 	}
 
 	/**
@@ -561,24 +810,16 @@ public class PlantUMLCodegen {
 	 * @param swagger
 	 * @return
 	 */
-	private List<ClassDiagram> processSwaggerModels(Swagger swagger) {
+	List<ClassDiagram> processSwaggerModels(Swagger swagger) {
 		LOGGER.entering(LOGGER.getName(), "processSwaggerModels");
-
-		List<ClassDiagram> classDiagrams = new ArrayList<ClassDiagram>();
 		Map<String, Model> modelsMap = swagger.getDefinitions();
+		List<Map.Entry<String, Model>> models = getModels(modelsMap);
 
-		for (Map.Entry<String, Model> models : modelsMap.entrySet()) {
-			String className = models.getKey();
-			Model modelObject = models.getValue();
-
-			LOGGER.info("Processing Model " + className);
-
-			String superClass = getSuperClass(modelObject);
-			List<ClassMembers> classMembers = getClassMembers(modelObject, modelsMap);
+		ConversionMetrics.Phase phase = metrics.begin("models");
+		List<ClassDiagram> classDiagrams = convertModels(models, modelsMap);
 
-			classDiagrams.add(new ClassDiagram(className, modelObject.getDescription(), classMembers,
-					getChildClasses(classMembers, superClass), isModelClass(modelObject), superClass));
-		}
+		metrics.setModels(classDiagrams.size());
+		phase.end();
 
 		LOGGER.exiting(LOGGER.getName(), "processSwaggerModels");
 
@@ -586,26 +827,48 @@ public class PlantUMLCodegen {
 	}
 
 	/**
+	 * Every model is converted on its own, reading only the models map, so
+	 * the models are spread over the converter's threads.
 	 * 
-	 * @param model
-	 * @return
+	 * @param models
+	 * @param modelsMap
+	 * @return class diagrams in the order of the models
 	 */
-	private boolean isModelClass(Model model) {
-		LOGGER.entering(LOGGER.getName(), "isModelClass");
-
-		boolean isModelClass = true;
-
-		if (model instanceof ModelImpl) {
-			List<String> enumValues = ((ModelImpl) model).getEnum();
+	private List<ClassDiagram> convertModels(List<Map.Entry<String, Model>> models, Map<String, Model> modelsMap) {
+		if (index == null) {
+			ConversionMetrics.Phase phase = metrics.begin("index");
+			index = new ModelIndex(modelsMap);
+			phase.end();
+		}
+		if (flattener == null) {
+			flattener = new ModelFlattener(modelsMap);
+		}
+		flattener.flatten(models);
 
-			if (enumValues != null && !enumValues.isEmpty()) {
-				isModelClass = false;
+		return converter.convertAll(models, new ParallelConverter.Conversion<Map.Entry<String, Model>, ClassDiagram>() {
+			@Override
+			public ClassDiagram convert(Map.Entry<String, Model> model) {
+				return getClassDiagram(model.getKey(), model.getValue());
 			}
+		}, metrics);
+	}
+
+	/**
+	 * 
+	 * @param className
+	 * @param modelObject
+	 * @return
+	 */
+	private ClassDiagram getClassDiagram(String className, Model modelObject) {
+		if (LOGGER.isLoggable(Level.FINE)) {
+			LOGGER.fine("Processing Model " + className);
 		}
 
-		LOGGER.exiting(LOGGER.getName(), "isModelClass");
+		String superClass = getSuperClass(modelObject);
+		List<ClassMembers> classMembers = getClassMembers(className, modelObject);
 
-		return isModelClass;
+		return new ClassDiagram(className, modelObject.getDescription(), classMembers,
+				getChildClasses(className, classMembers, superClass), !index.isEnum(className), superClass);
 	}
 
 	/**
@@ -642,57 +905,46 @@ public class PlantUMLCodegen {
 
 	/**
 	 * 
+	 * @param className
 	 * @param classMembers
 	 * @param superClass
 	 * @return
 	 */
-	private List<ClassRelation> getChildClasses(List<ClassMembers> classMembers, String superClass) {
+	private List<ClassRelation> getChildClasses(String className, List<ClassMembers> classMembers,
+			String superClass) {
 		LOGGER.entering(LOGGER.getName(), "getChildClasses");
 
-		List<ClassRelation> childClasses = new ArrayList<ClassRelation>();
+		RelationIndex childClasses = new RelationIndex(true, classMembers.size());
+		RelationKind kind = StringUtils.isNotEmpty(superClass) ? RelationKind.EXTENSION : RelationKind.COMPOSITION;
 
 		for (ClassMembers member : classMembers) {
-
-			boolean alreadyExists = false;
-
-			for (ClassRelation classRelation : childClasses) {
-
-				if (classRelation.getTargetClass().equalsIgnoreCase(member.getClassName())) {
-					alreadyExists = true;
-				}
-			}
-
-			if (!alreadyExists && member.getClassName() != null && member.getClassName().trim().length() > 0) {
-				if (StringUtils.isNotEmpty(superClass)) {
-					childClasses.add(new ClassRelation(member.getClassName(), true, false, member.getCardinality(),null));
-				} else {
-					childClasses.add(new ClassRelation(member.getClassName(), false, true, member.getCardinality(),null));
-				}
+			if (member.getClassName() != null && member.getClassName().trim().length() > 0) {
+				childClasses.add(new ClassRelation(className, member.getClassName(), kind, member.getCardinality()));
 			}
 		}
 
 		LOGGER.exiting(LOGGER.getName(), "getChildClasses");
 
-		return childClasses;
+		return childClasses.getRelations();
 	}
 
 	/**
 	 * 
+	 * @param className
 	 * @param modelObject
-	 * @param modelsMap
 	 * @return
 	 */
-	private List<ClassMembers> getClassMembers(Model modelObject, Map<String, Model> modelsMap) {
+	private List<ClassMembers> getClassMembers(String className, Model modelObject) {
 		LOGGER.entering(LOGGER.getName(), "getClassMembers");
 
 		List<ClassMembers> classMembers = new ArrayList<ClassMembers>();
 
 		if (modelObject instanceof ModelImpl) {
-			classMembers = getClassMembers((ModelImpl) modelObject, modelsMap);
+			classMembers = getClassMembers(className, (ModelImpl) modelObject);
 		} else if (modelObject instanceof ComposedModel) {
-			classMembers = getClassMembers((ComposedModel) modelObject, modelsMap);
+			classMembers = getClassMembers(className, (ComposedModel) modelObject);
 		} else if (modelObject instanceof ArrayModel) {
-			classMembers = getClassMembers((ArrayModel) modelObject, modelsMap);
+			classMembers = getClassMembers((ArrayModel) modelObject);
 		}
 
 		LOGGER.exiting(LOGGER.getName(), "getClassMembers");
@@ -702,10 +954,9 @@ public class PlantUMLCodegen {
 	/**
 	 * 
 	 * @param arrayModel
-	 * @param modelsMap
 	 * @return
 	 */
-	private List<ClassMembers> getClassMembers(ArrayModel arrayModel, Map<String, Model> modelsMap) {
+	private List<ClassMembers> getClassMembers(ArrayModel arrayModel) {
 		LOGGER.entering(LOGGER.getName(), "getClassMembers-ArrayModel");
 
 		List<ClassMembers> classMembers = new ArrayList<ClassMembers>();
@@ -722,50 +973,48 @@ public class PlantUMLCodegen {
 
 	/**
 	 * 
+	 * @param className
 	 * @param composedModel
-	 * @param modelsMap
 	 * @return
 	 */
-	private List<ClassMembers> getClassMembers(ComposedModel composedModel, Map<String, Model> modelsMap) {
+	private List<ClassMembers> getClassMembers(String className, ComposedModel composedModel) {
 		LOGGER.entering(LOGGER.getName(), "getClassMembers-ComposedModel");
 
 		List<ClassMembers> classMembers = new ArrayList<ClassMembers>();
 
-		Map<String, Property> childProperties = new HashMap<String, Property>();
-
-		if (null != composedModel.getChild()) {
-			childProperties = composedModel.getChild().getProperties();
-		}
-
-		List<Model> allOf = composedModel.getAllOf();
-		for (Model currentModel : allOf) {
-
+		// required properties are looked up on the last parent
+		RefModel lastParent = null;
+		for (Model currentModel : composedModel.getAllOf()) {
 			if (currentModel instanceof RefModel) {
-				RefModel refModel = (RefModel) currentModel;
-				childProperties.putAll(modelsMap.get(refModel.getSimpleRef()).getProperties());
-
-				classMembers = convertModelPropertiesToClassMembers(childProperties,
-						modelsMap.get(refModel.getSimpleRef()), modelsMap);
+				lastParent = (RefModel) currentModel;
 			}
 		}
 
+		if (lastParent != null) {
+			String requiredOwner = index.isDefined(lastParent.getSimpleRef()) ? lastParent.getSimpleRef() : null;
+			Map<String, Property> properties = flattener.getProperties(className, composedModel);
+			classMembers = new ArrayList<ClassMembers>(properties.size());
+			convertModelPropertiesToClassMembers(properties, requiredOwner, classMembers);
+		}
+
 		LOGGER.exiting(LOGGER.getName(), "getClassMembers-ComposedModel");
 		return classMembers;
 	}
 
 	/**
 	 * 
+	 * @param className
 	 * @param model
 	 * @return
 	 */
-	private List<ClassMembers> getClassMembers(ModelImpl model, Map<String, Model> modelsMap) {
+	private List<ClassMembers> getClassMembers(String className, ModelImpl model) {
 		LOGGER.entering(LOGGER.getName(), "getClassMembers-ModelImpl");
 
-		List<ClassMembers> classMembers = new ArrayList<ClassMembers>();
+		List<ClassMembers> classMembers = new ArrayList<ClassMembers>(Math.max(1, index.getMemberCount(className)));
 
 		Map<String, Property> modelMembers = model.getProperties();
 		if (modelMembers != null && !modelMembers.isEmpty()) {
-			classMembers.addAll(convertModelPropertiesToClassMembers(modelMembers, model, modelsMap));
+			convertModelPropertiesToClassMembers(modelMembers, className, classMembers);
 		} else {
 			Property modelAdditionalProps = model.getAdditionalProperties();
 
@@ -777,7 +1026,7 @@ public class PlantUMLCodegen {
 				List<String> enumValues = model.getEnum();
 
 				if (enumValues != null && !enumValues.isEmpty()) {
-					classMembers.addAll(getEnum(enumValues));
+					addEnum(enumValues, classMembers);
 				}
 			}
 		}
@@ -794,13 +1043,8 @@ public class PlantUMLCodegen {
 	 */
 	private ClassMembers getRefClassMembers(RefProperty refProperty) {
 		LOGGER.entering(LOGGER.getName(), "getRefClassMembers");
-		ClassMembers classMember = new ClassMembers();
-		classMember.setClassName(refProperty.getSimpleRef());
-		classMember.setName(" ");
-
-		if (includeCardinality) {
-			classMember.setCardinality(CARDINALITY_NONE_TO_MANY);
-		}
+		ClassMembers classMember = new ClassMembers(null, " ", names.canonical(refProperty.getSimpleRef()),
+				includeCardinality ? Cardinality.NONE_TO_MANY : null);
 
 		LOGGER.exiting(LOGGER.getName(), "getRefClassMembers");
 		return classMember;
@@ -809,78 +1053,71 @@ public class PlantUMLCodegen {
 	/**
 	 * 
 	 * @param enumValues
-	 * @return
+	 * @param classMembers
+	 *            receives a member for every value
 	 */
-	private List<ClassMembers> getEnum(List<String> enumValues) {
-		LOGGER.entering(LOGGER.getName(), "getEnum");
+	private void addEnum(List<String> enumValues, List<ClassMembers> classMembers) {
+		LOGGER.entering(LOGGER.getName(), "addEnum");
 
-		List<ClassMembers> classMembers = new ArrayList<ClassMembers>();
-
-		if (enumValues != null && !enumValues.isEmpty()) {
-			for (String enumValue : enumValues) {
-				ClassMembers classMember = new ClassMembers();
-				classMember.setName(enumValue);
-				classMembers.add(classMember);
-			}
+		for (String enumValue : enumValues) {
+			classMembers.add(new ClassMembers(null, enumValue, null, null));
 		}
 
-		LOGGER.exiting(LOGGER.getName(), "getEnum");
-		return classMembers;
+		LOGGER.exiting(LOGGER.getName(), "addEnum");
 	}
 
 	/**
 	 * 
 	 * @param modelMembers
-	 * @return
+	 * @param requiredOwner
+	 *            definition whose required properties count, null for no
+	 *            cardinality
+	 * @param classMembers
+	 *            receives a member for every property, in property order
 	 */
-	private List<ClassMembers> convertModelPropertiesToClassMembers(Map<String, Property> modelMembers,
-			Model modelObject, Map<String, Model> models) {
+	private void convertModelPropertiesToClassMembers(Map<String, Property> modelMembers, String requiredOwner,
+			List<ClassMembers> classMembers) {
 		LOGGER.entering(LOGGER.getName(), "convertModelPropertiesToClassMembers");
 
-		List<ClassMembers> classMembers = new ArrayList<ClassMembers>();
-
 		for (Map.Entry<String, Property> modelMapObject : modelMembers.entrySet()) {
 			String variablName = modelMapObject.getKey();
-
-			ClassMembers classMemberObject = new ClassMembers();
-			Property property = modelMembers.get(variablName);
+			Property property = modelMapObject.getValue();
+			ClassMembers classMemberObject;
 
 			if (property instanceof ArrayProperty) {
-				classMemberObject = getClassMember((ArrayProperty) property, modelObject, models, variablName);
+				classMemberObject = getClassMember((ArrayProperty) property, requiredOwner, variablName);
 			} else if (property instanceof RefProperty) {
-				classMemberObject = getClassMember((RefProperty) property, models, modelObject, variablName);
+				classMemberObject = getClassMember((RefProperty) property, requiredOwner, variablName);
 			} else {
-				classMemberObject.setDataType(
-						getDataType(property.getFormat() != null ? property.getFormat() : property.getType(), false));
-				classMemberObject.setName(variablName);
+				classMemberObject = new ClassMembers(
+						getDataType(property.getFormat() != null ? property.getFormat() : property.getType(), false),
+						variablName, null, null);
 			}
 
 			classMembers.add(classMemberObject);
 		}
 
 		LOGGER.exiting(LOGGER.getName(), "convertModelPropertiesToClassMembers");
-		return classMembers;
 	}
 
 	/**
 	 * 
-	 * @param modelObject
-	 * @param models
+	 * @param property
+	 * @param requiredOwner
 	 * @param variablName
-	 * @param classMemberObject
-	 * @param propObject
 	 */
-	private ClassMembers getClassMember(ArrayProperty property, Model modelObject, Map<String, Model> models,
-			String variablName) {
+	private ClassMembers getClassMember(ArrayProperty property, String requiredOwner, String variablName) {
 		LOGGER.entering(LOGGER.getName(), "getClassMember-ArrayProperty");
 
-		ClassMembers classMemberObject = new ClassMembers();
+		ClassMembers classMemberObject;
 		Property propObject = property.getItems();
 
 		if (propObject instanceof RefProperty) {
-			classMemberObject = getClassMember((RefProperty) propObject, models, modelObject, variablName);
+			classMemberObject = getClassMember((RefProperty) propObject, requiredOwner, variablName);
 		} else if (propObject instanceof StringProperty) {
 			classMemberObject = getClassMember((StringProperty) propObject, variablName);
+		} else {
+			classMemberObject = new ClassMembers(null, null, null, null);
 		}
 
 		LOGGER.exiting(LOGGER.getName(), "getClassMember-ArrayProperty");
@@ -898,9 +1135,8 @@ public class PlantUMLCodegen {
 	private ClassMembers getClassMember(StringProperty stringProperty, String variablName) {
 		LOGGER.entering(LOGGER.getName(), "getClassMember-StringProperty");
 
-		ClassMembers classMemberObject = new ClassMembers();
-		classMemberObject.setDataType(getDataType(stringProperty.getType(), true));
-		classMemberObject.setName(variablName);
+		ClassMembers classMemberObject = new ClassMembers(getDataType(stringProperty.getType(), true), variablName,
+				null, null);
 
 		LOGGER.exiting(LOGGER.getName(), "getClassMember-StringProperty");
 		return classMemberObject;
@@ -909,60 +1145,32 @@ public class PlantUMLCodegen {
 	/**
 	 * 
 	 * @param refProperty
-	 * @param models
-	 * @param modelObject
+	 * @param requiredOwner
 	 * @param variablName
 	 * @return
 	 */
-	private ClassMembers getClassMember(RefProperty refProperty, Map<String, Model> models, Model modelObject,
-			String variablName) {
+	private ClassMembers getClassMember(RefProperty refProperty, String requiredOwner, String variablName) {
 		LOGGER.entering(LOGGER.getName(), "getClassMember-RefProperty");
 
-		ClassMembers classMemberObject = new ClassMembers();
-		classMemberObject.setDataType(getDataType(refProperty.getSimpleRef(), true));
-		classMemberObject.setName(variablName);
+		String ref = refProperty.getSimpleRef();
+		String className = index.isDefined(ref) ? names.canonical(ref) : null;
+		Cardinality cardinality = null;
 
-		if (models.containsKey(refProperty.getSimpleRef())) {
-			classMemberObject.setClassName(refProperty.getSimpleRef());
-		}
-
-		if (includeCardinality && StringUtils.isNotEmpty(variablName) && modelObject != null) {
-			if (isRequiredProperty(modelObject, variablName)) {
-				classMemberObject.setCardinality(CARDINALITY_ONE_TO_MANY);
+		if (includeCardinality && StringUtils.isNotEmpty(variablName) && requiredOwner != null) {
+			if (index.isRequired(requiredOwner, variablName)) {
+				cardinality = Cardinality.ONE_TO_MANY;
 			} else {
-				classMemberObject.setCardinality(CARDINALITY_NONE_TO_MANY);
+				cardinality = Cardinality.NONE_TO_MANY;
 			}
 		}
 
+		ClassMembers classMemberObject = new ClassMembers(getDataType(ref, true), variablName, className,
+				cardinality);
+
 		LOGGER.exiting(LOGGER.getName(), "getClassMember-RefProperty");
 		return classMemberObject;
 	}
 
-	/**
-	 * 
-	 * @param modelObject
-	 * @param propertyName
-	 * @return
-	 */
-	private boolean isRequiredProperty(Model modelObject, String propertyName) {
-		boolean isRequiredProperty = false;
-		LOGGER.entering(LOGGER.getName(), "isRequiredProperty");
-
-		if (modelObject != null) {
-			if (modelObject instanceof ModelImpl) {
-				List<String> requiredProperties = ((ModelImpl) modelObject).getRequired();
-				if (requiredProperties != null && !requiredProperties.isEmpty()) {
-					isRequiredProperty = requiredProperties.contains(propertyName);
-				}
-			} else {
-				isRequiredProperty = false;
-			}
-		}
-
-		LOGGER.exiting(LOGGER.getName(), "isRequiredProperty");
-		return isRequiredProperty;
-	}
-
 	/**
 	 * 
 	 * @param className
@@ -971,7 +1179,7 @@ public class PlantUMLCodegen {
 	 */
 	private String getDataType(String className, boolean isArray) {
 		if (isArray) {
-			return new StringBuilder().append(toTitleCase(className)).append("[]").toString();
+			return names.toArrayType(className);
 		}
 
 		return toTitleCase(className);
@@ -983,20 +1191,6 @@ public class PlantUMLCodegen {
 	 * @return
 	 */
 	private String toTitleCase(String input) {
-		StringBuilder titleCase = new StringBuilder();
-		boolean nextTitleCase = true;
-
-		for (char c : input.toCharArray()) {
-			if (Character.isSpaceChar(c)) {
-				nextTitleCase = true;
-			} else if (nextTitleCase) {
-				c = Character.toTitleCase(c);
-				nextTitleCase = false;
-			}
-
-			titleCase.append(c);
-		}
-
-		return titleCase.toString();
+		return names.toTitleCase(input);
 	}
 }
\ No newline at end of file
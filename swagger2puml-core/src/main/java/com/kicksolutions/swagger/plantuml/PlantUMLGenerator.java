@@ -1,10 +1,26 @@
 package com.kicksolutions.swagger.plantuml;
 
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.lang3.StringUtils;
+
 import io.swagger.models.Swagger;
 import io.swagger.parser.SwaggerParser;
 
@@ -15,58 +31,423 @@ import io.swagger.parser.SwaggerParser;
 public class PlantUMLGenerator 
 {
 	private static final Logger LOGGER = Logger.getLogger(PlantUMLGenerator.class.getName());
+	/** part of the fingerprint, bump whenever the same spec starts producing different PUML */
+	private static final String OUTPUT_VERSION = "3";
+	
+	private boolean streamingEmitter = false;
+	private String templatePath;
+	private int parallelism = 1;
+	private BuildManifest manifest;
+	private RunReport runReport;
+	private PartitionMode partitionMode;
+	private int maxNodes = PlantUMLCodegen.DEFAULT_MAX_NODES;
+	private DiagramFocus focus;
 	
 	public PlantUMLGenerator() {
 		super();
 	}
+	
+	/**
+	 * 
+	 * @param streamingEmitter
+	 */
+	public void setStreamingEmitter(boolean streamingEmitter) {
+		this.streamingEmitter = streamingEmitter;
+	}
+	
+	/**
+	 * 
+	 * @param templatePath
+	 */
+	public void setTemplatePath(String templatePath) {
+		this.templatePath = templatePath;
+	}
+	
+	/**
+	 * 
+	 * @param parallelism
+	 *            threads converting the models and operations of a single spec
+	 */
+	public void setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+	}
+	
+	/**
+	 * 
+	 * @param manifest
+	 *            enables incremental generation, skipping specs whose
+	 *            fingerprint matches the one recorded for their output
+	 */
+	public void setManifest(BuildManifest manifest) {
+		this.manifest = manifest;
+	}
+	
+	/**
+	 * 
+	 * @param partitionMode
+	 *            splits every diagram into partitions linked from an index
+	 *            diagram, null for a single diagram
+	 * @param maxNodes
+	 *            most models and interfaces in a partition
+	 */
+	public void setPartitioning(PartitionMode partitionMode, int maxNodes) {
+		this.partitionMode = partitionMode;
+		this.maxNodes = maxNodes;
+	}
+	
+	/**
+	 * 
+	 * @param focus
+	 *            converts only the models and operations in focus, null for
+	 *            the whole spec
+	 */
+	public void setFocus(DiagramFocus focus) {
+		this.focus = focus;
+	}
+	
+	/**
+	 * 
+	 * @param runReport
+	 *            collects the cost of converting every spec
+	 */
+	public void setRunReport(RunReport runReport) {
+		this.runReport = runReport;
+	}
 	    
     /**
      * 
      * @param specFile
      * @param output
+     * @return false when the outputs were up to date and generation was skipped
      */
-    public void transformSwagger2Puml(String specFile,String output,boolean generateDefinitionModelOnly,boolean includeCardinality,boolean generateSvg){
+    public boolean transformSwagger2Puml(String specFile,String output,boolean generateDefinitionModelOnly,boolean includeCardinality,boolean generateSvg){
     	LOGGER.entering(LOGGER.getName(), "transformSwagger2Puml");
     	
     	File swaggerSpecFile = new File(specFile);
     	File targetLocation = new File(output);
+    	boolean generated;
     	
     	if(swaggerSpecFile.exists() && !swaggerSpecFile.isDirectory() 
     			&& targetLocation.exists() && targetLocation.isDirectory()) { 
     		
-    		Swagger swaggerObject = new SwaggerParser().read(swaggerSpecFile.getAbsolutePath());
-    		PlantUMLCodegen codegen = new PlantUMLCodegen(swaggerObject, targetLocation, generateDefinitionModelOnly, includeCardinality);
-    		String pumlPath = null;
-    		
+    		ConversionMetrics metrics = runReport != null ? runReport.startSpec(specFile, output) : ConversionMetrics.forSpec(specFile);
     		try{
-    			LOGGER.info("Processing File --> "+ specFile);
-    			pumlPath = codegen.generatePuml();    		
-    			LOGGER.info("Sucessfully Create PUML !!!");
+    			generated = transform(swaggerSpecFile, targetLocation, metrics, generateDefinitionModelOnly, includeCardinality, generateSvg);
+    			metrics.setSkipped(!generated);
+    		}
+    		catch(RuntimeException e){
+    			metrics.setFailed(e);
+    			throw e;
+    		}
+    		finally{
+    			if(runReport != null){
+    				runReport.finishSpec(metrics);
+    			}
+    		}
+    	}else{
+    		throw new RuntimeException("Spec File or Ouput Locations are not valid");
+    	}
+    	
+    	LOGGER.exiting(LOGGER.getName(), "transformSwagger2Puml");
+    	return generated;
+    }
+    
+    /**
+     * 
+     * @param swaggerSpecFile
+     * @param targetLocation
+     * @param metrics
+     * @return false when the outputs were up to date and generation was skipped
+     */
+    private boolean transform(File swaggerSpecFile,File targetLocation,ConversionMetrics metrics,boolean generateDefinitionModelOnly,boolean includeCardinality,boolean generateSvg){
+    	String specFile = swaggerSpecFile.getPath();
+    	
+    	String fingerprint = null;
+    	if(manifest != null){
+    		fingerprint = getFingerprint(swaggerSpecFile, generateDefinitionModelOnly, includeCardinality, generateSvg);
+    		
+    		if(manifest.isUpToDate(targetLocation, fingerprint)){
+    			LOGGER.info("Skipping unchanged File --> "+ specFile);
+    			return false;
+    		}
+    	}
+    	
+    	ConversionMetrics.Phase phase = metrics.begin("parse");
+    	Swagger swaggerObject = null;
+    	if(generateDefinitionModelOnly && (focus == null || focus.isEmpty())){
+    		swaggerObject = readDefinitions(swaggerSpecFile);
+    	}
+    	if(swaggerObject == null){
+    		swaggerObject = new SwaggerParser().read(swaggerSpecFile.getAbsolutePath());
+    	}
+    	phase.end();
+    	
+    	if(swaggerObject == null){
+    		throw new RuntimeException("Unable to parse Spec File " + specFile);
+    	}
+    	
+    	PlantUMLCodegen codegen = createCodegen(swaggerObject, targetLocation, generateDefinitionModelOnly, includeCardinality);
+    	codegen.setMetrics(metrics);
+    	codegen.setSvgLinks(generateSvg);
+    	
+    	try{
+    		LOGGER.info("Processing File --> "+ specFile);
+    		
+    		List<File> outputs = new ArrayList<File>();
+    		
+    		if(partitionMode != null)
+    		{
+    			Map<File, String> pumlSources = codegen.generatePartitionedPuml();
+    			outputs.addAll(pumlSources.keySet());
+    			LOGGER.info("Sucessfully Create " + pumlSources.size() + " PUML Files !!!");
     			
     			if(generateSvg)
     			{
-    				generateUMLDiagram(pumlPath, targetLocation);
+    				phase = metrics.begin("render");
+    				outputs.addAll(generateUMLDiagrams(pumlSources, metrics));
+    				phase.end();
     			}
     		}
-    		catch(Exception e){
-    			LOGGER.log(Level.SEVERE, e.getMessage(),e);
-    			throw new RuntimeException(e);
+    		else if(generateSvg)
+    		{
+    			StringWriter puml = new StringWriter();
+    			codegen.generatePuml(puml);
+    			String pumlSource = puml.toString();
+    			writePuml(pumlSource, new File(targetLocation, "swagger.puml"));
+    			outputs.add(new File(targetLocation, "swagger.puml"));
+    			LOGGER.info("Sucessfully Create PUML !!!");
+    			
+    			phase = metrics.begin("render");
+    			generateUMLDiagram(pumlSource, targetLocation);
+    			phase.end();
+    			outputs.add(new File(targetLocation, "swagger.svg"));
+    		}
+    		else
+    		{
+    			codegen.generatePuml();
+    			outputs.add(new File(targetLocation, "swagger.puml"));
+    			LOGGER.info("Sucessfully Create PUML !!!");
+    		}
+    		
+    		long outputBytes = 0;
+    		for(File outputFile: outputs){
+    			outputBytes += outputFile.length();
+    		}
+    		metrics.setOutputBytes(outputBytes);
+    		
+    		if(manifest != null){
+    			manifest.record(targetLocation, fingerprint, outputs);
+    		}
+    	}
+    	catch(Exception e){
+    		LOGGER.log(Level.SEVERE, e.getMessage(),e);
+    		throw new RuntimeException(e);
+    	}
+    	
+    	return true;
+    }
+    
+    /**
+     * Converts a spec read from a stream straight into the given format, for
+     * pipelines. Nothing touches the disk: PUML is written to the stream as it
+     * is generated, SVG is rendered from the PUML held in memory. The spec can
+     * only reference files by absolute location, and a single diagram is
+     * generated even with partitioning set.
+     * 
+     * @param specStream
+     *            JSON or YAML spec, read to its end
+     * @param outputStream
+     *            receives the PUML or SVG, flushed but left open
+     * @param format
+     * @param generateDefinitionModelOnly
+     * @param includeCardinality
+     * @throws IOException
+     */
+    public void transformSwagger2Puml(InputStream specStream,OutputStream outputStream,OutputFormat format,boolean generateDefinitionModelOnly,boolean includeCardinality) throws IOException{
+    	LOGGER.entering(LOGGER.getName(), "transformSwagger2Puml");
+    	
+    	ConversionMetrics metrics = ConversionMetrics.forSpec("-");
+    	ConversionMetrics.Phase phase = metrics.begin("parse");
+    	String spec = IOUtils.toString(specStream, Charset.forName("UTF-8"));
+    	Swagger swaggerObject = StringUtils.isBlank(spec) ? null : new SwaggerParser().parse(spec);
+    	phase.end();
+    	
+    	if(swaggerObject == null){
+    		throw new IOException("Unable to parse Spec from the input stream");
+    	}
+    	if(partitionMode != null){
+    		LOGGER.warning("Partitioning needs an output directory, generating a single diagram");
+    	}
+    	
+    	CountingOutputStream output = new CountingOutputStream(outputStream);
+    	
+    	try{
+    		PlantUMLCodegen codegen = createCodegen(swaggerObject, null, generateDefinitionModelOnly, includeCardinality);
+    		codegen.setMetrics(metrics);
+    		
+    		if(format == OutputFormat.SVG){
+    			StringWriter puml = new StringWriter();
+    			codegen.generatePuml(puml);
+    			
+    			phase = metrics.begin("render");
+    			new PlantUMLRenderer().render(puml.toString(), output);
+    			phase.end();
+    		}
+    		else{
+    			Writer writer = new BufferedWriter(new OutputStreamWriter(output, Charset.defaultCharset()));
+    			codegen.generatePuml(writer);
+    			writer.flush();
     		}
-    	}else{
-    		throw new RuntimeException("Spec File or Ouput Locations are not valid");
+    	}
+    	catch(IllegalAccessException e){
+    		throw new IOException(e.getMessage(), e);
     	}
     	
+    	output.flush();
+    	metrics.setOutputBytes(output.getByteCount());
+    	LOGGER.info("Sucessfully Streamed " + format + " !!!");
     	LOGGER.exiting(LOGGER.getName(), "transformSwagger2Puml");
     }
     
+    /**
+     * Paths are never drawn without interfaces, so only the definitions are
+     * read, unless the focus needs the operations to find them.
+     * 
+     * @param swaggerSpecFile
+     * @return null when the spec has to be parsed in full
+     */
+    private Swagger readDefinitions(File swaggerSpecFile){
+    	try{
+    		return new DefinitionsReader().read(swaggerSpecFile);
+    	}
+    	catch(IOException e){
+    		LOGGER.log(Level.FINE, "Unable to stream definitions of " + swaggerSpecFile, e);
+    		return null;
+    	}
+    }
+    
+    /**
+     * Converts an already parsed spec without touching the file system.
+     * 
+     * @param swagger
+     * @param writer
+     *            receives the PUML source
+     * @param generateDefinitionModelOnly
+     * @param includeCardinality
+     * @throws IOException
+     */
+    public void generatePuml(Swagger swagger,Writer writer,boolean generateDefinitionModelOnly,boolean includeCardinality) throws IOException{
+    	try{
+    		PlantUMLCodegen codegen = createCodegen(swagger, null, generateDefinitionModelOnly, includeCardinality);
+    		codegen.setMetrics(ConversionMetrics.forSpec(swagger.getInfo() != null ? swagger.getInfo().getTitle() : null));
+    		codegen.generatePuml(writer);
+    	}
+    	catch(IllegalAccessException e){
+    		throw new IOException(e.getMessage(), e);
+    	}
+    }
+    
+    /**
+     * 
+     * @param swagger
+     * @param targetLocation
+     * @param generateDefinitionModelOnly
+     * @param includeCardinality
+     * @return
+     */
+    private PlantUMLCodegen createCodegen(Swagger swagger,File targetLocation,boolean generateDefinitionModelOnly,boolean includeCardinality){
+    	PlantUMLCodegen codegen = new PlantUMLCodegen(swagger, targetLocation, generateDefinitionModelOnly, includeCardinality);
+    	codegen.setStreamingEmitter(streamingEmitter);
+    	codegen.setTemplatePath(templatePath);
+    	codegen.setParallelism(parallelism);
+    	codegen.setFocus(focus);
+    	if(partitionMode != null && targetLocation != null){
+    		codegen.setPartitioning(partitionMode, maxNodes);
+    	}
+    	return codegen;
+    }
+    
+    /**
+     * 
+     * @param specFile
+     * @return fingerprint of the spec content, the local files it references through $ref, and everything else that shapes the output
+     */
+    private String getFingerprint(File specFile,boolean generateDefinitionModelOnly,boolean includeCardinality,boolean generateSvg){
+    	Map<String, String> options = new LinkedHashMap<String, String>();
+    	options.put("outputVersion", OUTPUT_VERSION);
+    	options.put("generateDefinitionModelOnly", String.valueOf(generateDefinitionModelOnly));
+    	options.put("includeCardinality", String.valueOf(includeCardinality));
+    	options.put("generateSvg", String.valueOf(generateSvg));
+    	if(partitionMode != null){
+    		options.put("partition", partitionMode + ":" + maxNodes);
+    	}
+    	if(focus != null && !focus.isEmpty()){
+    		options.put("focus", focus.toString());
+    	}
+    	
+    	try{
+    		options.put("template", TemplateRegistry.getInstance().getTemplateVersion(templatePath));
+    		return BuildManifest.fingerprint(PlantUMLWatcher.findLocalFiles(specFile), options);
+    	}
+    	catch(IOException e){
+    		LOGGER.log(Level.SEVERE, e.getMessage(),e);
+    		throw new RuntimeException(e);
+    	}
+    }
+    
+    /**
+     * 
+     * @param pumlSource
+     * @param pumlFile
+     * @throws IOException
+     */
+    private void writePuml(String pumlSource,File pumlFile) throws IOException{
+    	Writer writer = new OutputStreamWriter(new FileOutputStream(pumlFile), Charset.defaultCharset());
+    	try{
+    		writer.write(pumlSource);
+    	}
+    	finally{
+    		writer.close();
+    	}
+    }
+    
     /**
      * 
-     * @param pumlLocation
+     * @param pumlSource
      * @param targetLocation
      * @throws IOException
-     * @throws InterruptedException
      */
-    private void generateUMLDiagram(String pumlLocation,File targetLocation) throws IOException, InterruptedException{
-    	net.sourceforge.plantuml.Run.main(new String[]{"-tsvg","-o",targetLocation.getAbsolutePath(),"-I",pumlLocation});
+    private void generateUMLDiagram(String pumlSource,File targetLocation) throws IOException{
+    	new PlantUMLRenderer().render(pumlSource, new File(targetLocation, "swagger.svg"));
+    }
+    
+    /**
+     * Every diagram is laid out on its own, so each one is handed to a thread
+     * of its own.
+     * 
+     * @param pumlSources
+     *            PUML files with the source written to them
+     * @param metrics
+     * @return an SVG next to every PUML file, in the same order
+     */
+    private List<File> generateUMLDiagrams(Map<File, String> pumlSources,ConversionMetrics metrics){
+    	List<Map.Entry<File, String>> pumlFiles = new ArrayList<Map.Entry<File, String>>(pumlSources.entrySet());
+    	
+    	return new ParallelConverter(parallelism).convertAll(pumlFiles, new ParallelConverter.Conversion<Map.Entry<File, String>, File>() {
+    		@Override
+    		public File convert(Map.Entry<File, String> pumlSource) {
+    			File pumlFile = pumlSource.getKey();
+    			String name = pumlFile.getName();
+    			File svgFile = new File(pumlFile.getParentFile(), name.substring(0, name.lastIndexOf('.')) + ".svg");
+    			
+    			try{
+    				new PlantUMLRenderer().render(pumlSource.getValue(), svgFile);
+    			}
+    			catch(IOException e){
+    				throw new RuntimeException("Unable to render " + pumlFile, e);
+    			}
+    			return svgFile;
+    		}
+    	}, metrics, 1);
     }
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import net.sourceforge.plantuml.FileFormat;
+import net.sourceforge.plantuml.FileFormatOption;
+import net.sourceforge.plantuml.SourceStringReader;
+
+/**
+ * Renders PUML source in memory through PlantUML's {@link SourceStringReader}.
+ * Unlike {@code net.sourceforge.plantuml.Run}, no command line options are
+ * parsed into PlantUML's static state and the source is never re-read from
+ * disk, so each render only touches its own reader and stream and renders may
+ * run concurrently.
+ *
+ * @author MSANTOSH
+ *
+ */
+public class PlantUMLRenderer {
+
+	private static final Logger LOGGER = Logger.getLogger(PlantUMLRenderer.class.getName());
+
+	private final FileFormat fileFormat;
+
+	public PlantUMLRenderer() {
+		this(FileFormat.SVG);
+	}
+
+	/**
+	 *
+	 * @param fileFormat
+	 */
+	public PlantUMLRenderer(FileFormat fileFormat) {
+		super();
+		this.fileFormat = fileFormat;
+	}
+
+	/**
+	 *
+	 * @param pumlSource
+	 *            diagram text including the @startuml/@enduml markers
+	 * @param outputStream
+	 *            receives the rendered diagram, left open
+	 * @throws IOException
+	 */
+	public void render(String pumlSource, OutputStream outputStream) throws IOException {
+		LOGGER.entering(LOGGER.getName(), "render");
+
+		SourceStringReader reader = new SourceStringReader(pumlSource);
+		String description = reader.generateImage(outputStream, new FileFormatOption(fileFormat));
+
+		if (description == null) {
+			throw new IOException("No diagram found in PUML source");
+		}
+
+		LOGGER.log(Level.FINEST, "Rendered " + description);
+		LOGGER.exiting(LOGGER.getName(), "render");
+	}
+
+	/**
+	 *
+	 * @param pumlSource
+	 * @param target
+	 * @throws IOException
+	 */
+	public void render(String pumlSource, File target) throws IOException {
+		OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(target));
+		try {
+			render(pumlSource, outputStream);
+		} finally {
+			outputStream.close();
+		}
+	}
+
+	public FileFormat getFileFormat() {
+		return fileFormat;
+	}
+}
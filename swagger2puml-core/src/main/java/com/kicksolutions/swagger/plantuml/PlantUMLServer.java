@@ -0,0 +1,295 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import io.swagger.models.Swagger;
+import io.swagger.parser.SwaggerParser;
+
+/**
+ * Keeps the converter warm in a long running process and serves conversions
+ * over HTTP on a local address.
+ *
+ * <pre>
+ * POST /puml   spec as request body, returns text/plain PUML
+ * POST /svg    spec as request body, returns image/svg+xml
+ * GET  /health returns the server status as JSON
+ * </pre>
+ *
+ * Conversions accept the {@code generateDefinitionModelOnly} and
+ * {@code includeCardinality} query parameters. At most
+ * {@code maxConcurrentRequests} conversions run at a time; further requests
+ * are answered with 503 straight away instead of holding a server thread, so
+ * {@code /health} never queues behind waiting conversions.
+ *
+ * @author MSANTOSH
+ *
+ */
+public class PlantUMLServer {
+
+	private static final Logger LOGGER = Logger.getLogger(PlantUMLServer.class.getName());
+
+	private static final int MAX_SPEC_BYTES = 64 * 1024 * 1024;
+	private static final String RETRY_AFTER_SECONDS = "1";
+
+	private final PlantUMLGenerator generator;
+	private final PlantUMLRenderer renderer = new PlantUMLRenderer();
+	private final int maxConcurrentRequests;
+	private final Semaphore permits;
+	private int maxSpecBytes = MAX_SPEC_BYTES;
+
+	private HttpServer server;
+	private ExecutorService executor;
+
+	/**
+	 *
+	 * @param generator
+	 *            configured generator used for every request
+	 * @param maxConcurrentRequests
+	 *            conversions served in parallel, further requests are
+	 *            rejected with 503 and a Retry-After of
+	 *            {@value #RETRY_AFTER_SECONDS} second
+	 */
+	public PlantUMLServer(PlantUMLGenerator generator, int maxConcurrentRequests) {
+		super();
+		this.generator = generator;
+		this.maxConcurrentRequests = Math.max(1, maxConcurrentRequests);
+		this.permits = new Semaphore(this.maxConcurrentRequests);
+	}
+
+	/**
+	 *
+	 * @param maxSpecBytes
+	 *            largest request body converted, larger ones get 413
+	 */
+	void setMaxSpecBytes(int maxSpecBytes) {
+		this.maxSpecBytes = maxSpecBytes;
+	}
+
+	/**
+	 *
+	 * @param host
+	 * @param port
+	 *            0 picks a free port
+	 * @throws IOException
+	 */
+	public synchronized void start(String host, int port) throws IOException {
+		if (server != null) {
+			throw new IllegalStateException("Server already started");
+		}
+
+		server = HttpServer.create(new InetSocketAddress(host, port), 0);
+		server.createContext("/puml", new ConversionHandler(false));
+		server.createContext("/svg", new ConversionHandler(true));
+		server.createContext("/health", new HealthHandler());
+
+		// conversions hold at most maxConcurrentRequests threads, everything else
+		// is answered without blocking on the others
+		executor = Executors.newFixedThreadPool(maxConcurrentRequests + 2);
+		server.setExecutor(executor);
+		server.start();
+
+		LOGGER.info("Listening on http://" + host + ":" + getPort());
+	}
+
+	/**
+	 *
+	 * @param delaySeconds
+	 *            time given to running exchanges to finish
+	 */
+	public synchronized void stop(int delaySeconds) {
+		if (server != null) {
+			server.stop(delaySeconds);
+			executor.shutdown();
+			server = null;
+			executor = null;
+		}
+	}
+
+	public synchronized int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 *
+	 */
+	private class ConversionHandler implements HttpHandler {
+
+		private final boolean svg;
+
+		private ConversionHandler(boolean svg) {
+			this.svg = svg;
+		}
+
+		@Override
+		public void handle(HttpExchange exchange) throws IOException {
+			try {
+				if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+					sendText(exchange, 405, "Only POST is supported");
+					return;
+				}
+
+				if (!permits.tryAcquire()) {
+					exchange.getResponseHeaders().set("Retry-After", RETRY_AFTER_SECONDS);
+					sendText(exchange, 503, "Too many concurrent requests");
+					return;
+				}
+
+				try {
+					convert(exchange);
+				} finally {
+					permits.release();
+				}
+			} catch (Exception e) {
+				LOGGER.log(Level.SEVERE, e.getMessage(), e);
+				sendError(exchange, 500, String.valueOf(e.getMessage()));
+			} finally {
+				exchange.close();
+			}
+		}
+
+		/**
+		 *
+		 * @param exchange
+		 * @throws IOException
+		 */
+		private void convert(HttpExchange exchange) throws IOException {
+			String spec = readBody(exchange, maxSpecBytes);
+			if (spec == null) {
+				sendText(exchange, 413, "Spec exceeds " + maxSpecBytes + " bytes");
+				return;
+			}
+
+			Swagger swagger;
+			try {
+				swagger = StringUtils.isBlank(spec) ? null : new SwaggerParser().parse(spec);
+			} catch (RuntimeException e) {
+				sendText(exchange, 400, "Unable to parse spec: " + e.getMessage());
+				return;
+			}
+
+			if (swagger == null || swagger.getInfo() == null) {
+				sendText(exchange, 400, "Request body is not a valid Swagger spec");
+				return;
+			}
+
+			Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+			StringWriter puml = new StringWriter();
+			generator.generatePuml(swagger, puml,
+					Boolean.parseBoolean(getValue(query, "generateDefinitionModelOnly", "false")),
+					Boolean.parseBoolean(getValue(query, "includeCardinality", "true")));
+
+			if (svg) {
+				ByteArrayOutputStream image = new ByteArrayOutputStream();
+				renderer.render(puml.toString(), image);
+				send(exchange, 200, "image/svg+xml", image.toByteArray());
+			} else {
+				send(exchange, 200, "text/plain; charset=UTF-8", puml.toString().getBytes(StandardCharsets.UTF_8));
+			}
+		}
+	}
+
+	/**
+	 *
+	 */
+	private class HealthHandler implements HttpHandler {
+
+		@Override
+		public void handle(HttpExchange exchange) throws IOException {
+			try {
+				int active = maxConcurrentRequests - permits.availablePermits();
+				String health = new StringBuilder().append("{\"status\":\"UP\",\"activeRequests\":").append(active)
+						.append(",\"maxConcurrentRequests\":").append(maxConcurrentRequests).append("}").toString();
+
+				send(exchange, 200, "application/json", health.getBytes(StandardCharsets.UTF_8));
+			} finally {
+				exchange.close();
+			}
+		}
+	}
+
+	/**
+	 *
+	 * @param exchange
+	 * @param maxBytes
+	 * @return the body, or null when it is larger than allowed
+	 * @throws IOException
+	 */
+	private static String readBody(HttpExchange exchange, int maxBytes) throws IOException {
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		InputStream inputStream = exchange.getRequestBody();
+
+		for (int read = inputStream.read(buffer); read >= 0; read = inputStream.read(buffer)) {
+			if (body.size() + read > maxBytes) {
+				return null;
+			}
+			body.write(buffer, 0, read);
+		}
+
+		return new String(body.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private static void sendText(HttpExchange exchange, int status, String message) throws IOException {
+		send(exchange, status, "text/plain; charset=UTF-8", message.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+		if (exchange.getResponseCode() < 0) {
+			sendText(exchange, status, message);
+		}
+	}
+
+	private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+		exchange.getResponseHeaders().set("Content-Type", contentType);
+		exchange.sendResponseHeaders(status, body.length);
+
+		OutputStream outputStream = exchange.getResponseBody();
+		try {
+			outputStream.write(body);
+		} finally {
+			outputStream.close();
+		}
+	}
+
+	private static Map<String, String> parseQuery(String rawQuery) throws UnsupportedEncodingException {
+		Map<String, String> query = new HashMap<String, String>();
+
+		if (StringUtils.isNotEmpty(rawQuery)) {
+			for (String parameter : rawQuery.split("&")) {
+				int separator = parameter.indexOf('=');
+				String name = separator < 0 ? parameter : parameter.substring(0, separator);
+				String value = separator < 0 ? "" : parameter.substring(separator + 1);
+
+				query.put(URLDecoder.decode(name, "UTF-8"), URLDecoder.decode(value, "UTF-8"));
+			}
+		}
+
+		return query;
+	}
+
+	private static String getValue(Map<String, String> query, String name, String defaultValue) {
+		String value = query.get(name);
+		return StringUtils.isEmpty(value) ? defaultValue : value;
+	}
+}
@@ -0,0 +1,234 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import com.github.mustachejava.util.HtmlEscaper;
+import com.kicksolutions.swagger.plantuml.vo.ClassDiagram;
+import com.kicksolutions.swagger.plantuml.vo.ClassMembers;
+import com.kicksolutions.swagger.plantuml.vo.ClassRelation;
+import com.kicksolutions.swagger.plantuml.vo.InterfaceDiagram;
+import com.kicksolutions.swagger.plantuml.vo.MethodDefinitions;
+
+/**
+ * Writes PUML directly to a {@link Writer}, one diagram element at a time,
+ * producing exactly the bytes {@code puml.mustache} renders for the same
+ * elements. Elements must be written in template order: classes, interfaces,
+ * relations and then the note.
+ *
+ * @author MSANTOSH
+ *
+ */
+public class PlantUMLStreamEmitter {
+
+	/** puml.mustache is checked in with CRLF line endings */
+	private static final String NEW_LINE = "\r\n";
+
+	private static final String HEADER = new StringBuilder().append("@startuml").append(NEW_LINE)
+			.append("hide empty members").append(NEW_LINE)
+			.append("set namespaceSeparator none").append(NEW_LINE)
+			.append(NEW_LINE)
+			.append("skinparam class {").append(NEW_LINE)
+			.append("\tBackgroundColor PaleGreen").append(NEW_LINE)
+			.append("\tArrowColor RoyalBlue").append(NEW_LINE)
+			.append("\tBorderColor DimGray").append(NEW_LINE)
+			.append("}").append(NEW_LINE)
+			.append(NEW_LINE).toString();
+
+	private enum Section {
+		CLASSES, INTERFACES, RELATIONS, DONE
+	}
+
+	private final Writer writer;
+	private Section section;
+
+	/**
+	 *
+	 * @param writer
+	 *            wrapped in a {@link BufferedWriter} unless it already is one
+	 */
+	public PlantUMLStreamEmitter(Writer writer) {
+		super();
+		this.writer = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer);
+	}
+
+	/**
+	 *
+	 * @throws IOException
+	 */
+	public void writeHeader() throws IOException {
+		writer.write(HEADER);
+		section = Section.CLASSES;
+	}
+
+	/**
+	 *
+	 * @param classDiagram
+	 * @throws IOException
+	 */
+	public void writeClass(ClassDiagram classDiagram) throws IOException {
+		moveTo(Section.CLASSES);
+
+		writer.write(classDiagram.isClass() ? "class" : "");
+		writer.write(' ');
+		writer.write(classDiagram.isClass() ? "" : "enum");
+		writer.write(' ');
+		escape(classDiagram.getClassName());
+		writer.write(' ');
+		if (isTrue(classDiagram.getSuperClass())) {
+			writer.write(" < ? extends ");
+			escape(classDiagram.getSuperClass());
+			writer.write("> ");
+		}
+		writer.write('{');
+		writer.write(NEW_LINE);
+
+		List<ClassMembers> fields = classDiagram.getFields();
+		if (fields != null) {
+			for (ClassMembers field : fields) {
+				writer.write("\t\t - ");
+				if (isTrue(field.getName())) {
+					escape(field.getName());
+				}
+				writer.write(' ');
+				if (isTrue(field.getDataType())) {
+					writer.write("<b>:");
+					escape(field.getDataType());
+					writer.write("</b>");
+				}
+				writer.write(' ');
+				writer.write(NEW_LINE);
+			}
+		}
+
+		writer.write('}');
+		writer.write(NEW_LINE);
+		writer.write(NEW_LINE);
+	}
+
+	/**
+	 *
+	 * @param interfaceDiagram
+	 * @throws IOException
+	 */
+	public void writeInterface(InterfaceDiagram interfaceDiagram) throws IOException {
+		moveTo(Section.INTERFACES);
+
+		writer.write("interface ");
+		escape(interfaceDiagram.getInterfaceName());
+		writer.write(" {");
+		writer.write(NEW_LINE);
+
+		List<MethodDefinitions> methods = interfaceDiagram.getMethods();
+		if (methods != null) {
+			for (MethodDefinitions method : methods) {
+				writer.write("\t + <i>");
+				escape(method.getMethodDefinition());
+				writer.write("</i><b>:");
+				escape(method.getReturnType());
+				writer.write("</b> ");
+				if (isTrue(method.getErrorClass())) {
+					writer.write(" <b><color:red> throws ");
+					escape(method.getErrorClass());
+					writer.write(" </color> </b>");
+				}
+				writer.write(NEW_LINE);
+			}
+		}
+
+		writer.write('}');
+		writer.write(NEW_LINE);
+		writer.write(NEW_LINE);
+	}
+
+	/**
+	 *
+	 * @param relation
+	 * @throws IOException
+	 */
+	public void writeRelation(ClassRelation relation) throws IOException {
+		moveTo(Section.RELATIONS);
+
+		escape(relation.getSourceClass());
+		writer.write(' ');
+		writer.write(relation.isExtension() ? "-->" : "");
+		writer.write(' ');
+		writer.write(relation.isComposition() ? "*--" : "");
+		writer.write(' ');
+		if (relation.getCardinality() != null) {
+			writer.write('"');
+			escape(relation.getCardinality().getLabel());
+			writer.write('"');
+		}
+		writer.write("  ");
+		escape(relation.getTargetClass());
+		writer.write(' ');
+		writer.write(NEW_LINE);
+	}
+
+	/**
+	 * Writes the title note and the end marker, then flushes.
+	 *
+	 * @param title
+	 * @param version
+	 * @throws IOException
+	 */
+	public void writeFooter(String title, String version) throws IOException {
+		moveTo(Section.DONE);
+
+		writer.write("note as N1");
+		writer.write(NEW_LINE);
+		writer.write("  Name: <b><color:royalBlue>");
+		escape(title);
+		writer.write("</color>");
+		writer.write(NEW_LINE);
+		writer.write("  Version: <b><color:royalBlue>");
+		escape(version);
+		writer.write("</color>");
+		writer.write(NEW_LINE);
+		writer.write("end note");
+		writer.write(NEW_LINE);
+		writer.write(NEW_LINE);
+		writer.write(NEW_LINE);
+		writer.write("@enduml");
+		writer.flush();
+	}
+
+	/**
+	 * Emits the blank lines the template places between its sections.
+	 *
+	 * @param target
+	 * @throws IOException
+	 */
+	private void moveTo(Section target) throws IOException {
+		if (section == null) {
+			throw new IllegalStateException("writeHeader must be called first");
+		}
+		if (target.ordinal() < section.ordinal()) {
+			throw new IllegalStateException("Can not write " + target + " after " + section);
+		}
+
+		while (section.ordinal() < target.ordinal()) {
+			writer.write(NEW_LINE);
+			section = Section.values()[section.ordinal() + 1];
+		}
+	}
+
+	/**
+	 * Mustache sections render for non empty strings only.
+	 */
+	private static boolean isTrue(String value) {
+		return value != null && value.length() > 0;
+	}
+
+	/**
+	 * Escapes like {@code DefaultMustacheFactory.encode}.
+	 */
+	private void escape(String value) {
+		if (value != null) {
+			HtmlEscaper.escape(value, writer, true);
+		}
+	}
+}
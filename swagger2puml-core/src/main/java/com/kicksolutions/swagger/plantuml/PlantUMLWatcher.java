@@ -0,0 +1,260 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.swagger.util.Yaml;
+
+/**
+ * Regenerates the diagrams of a spec whenever the spec, or a local file it
+ * references through {@code $ref}, changes. Bursts of writes are debounced
+ * into a single regeneration, which runs in the same warm JVM.
+ *
+ * @author MSANTOSH
+ *
+ */
+public class PlantUMLWatcher {
+
+	private static final Logger LOGGER = Logger.getLogger(PlantUMLWatcher.class.getName());
+
+	private static final long DEFAULT_DEBOUNCE_MILLIS = 300;
+	/**
+	 * a $ref whose value does not start with #, the only ones which can name
+	 * another file; the blanks before the value are matched possessively, so
+	 * the look ahead always sees the value
+	 */
+	static final Pattern FILE_REFERENCE = Pattern.compile("\\$ref[\"']?\\s*:\\s*+(?![\"']?#)");
+
+	private final PlantUMLGenerator generator;
+	private final File specFile;
+	private final String output;
+	private final boolean generateDefinitionModelOnly;
+	private final boolean includeCardinality;
+	private final boolean generateSvg;
+
+	private long debounceMillis = DEFAULT_DEBOUNCE_MILLIS;
+	private final Map<WatchKey, Path> watchedDirectories = new HashMap<WatchKey, Path>();
+	private Set<Path> watchedFiles = new LinkedHashSet<Path>();
+
+	/**
+	 *
+	 * @param generator
+	 * @param specFile
+	 * @param output
+	 * @param generateDefinitionModelOnly
+	 * @param includeCardinality
+	 * @param generateSvg
+	 */
+	public PlantUMLWatcher(PlantUMLGenerator generator, String specFile, String output,
+			boolean generateDefinitionModelOnly, boolean includeCardinality, boolean generateSvg) {
+		super();
+		this.generator = generator;
+		this.specFile = new File(specFile).getAbsoluteFile();
+		this.output = output;
+		this.generateDefinitionModelOnly = generateDefinitionModelOnly;
+		this.includeCardinality = includeCardinality;
+		this.generateSvg = generateSvg;
+	}
+
+	/**
+	 *
+	 * @param debounceMillis
+	 *            quiet time after the last change before regenerating
+	 */
+	public void setDebounceMillis(long debounceMillis) {
+		this.debounceMillis = debounceMillis;
+	}
+
+	/**
+	 * Generates once and then blocks, regenerating on every change, until the
+	 * thread is interrupted.
+	 *
+	 * @throws IOException
+	 */
+	public void watch() throws IOException {
+		LOGGER.entering(LOGGER.getName(), "watch");
+
+		WatchService watchService = FileSystems.getDefault().newWatchService();
+		try {
+			regenerate(watchService);
+
+			while (!Thread.currentThread().isInterrupted()) {
+				WatchKey key = watchService.take();
+				boolean changed = pollEvents(key);
+
+				// keep draining until the writes settle down
+				while ((key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+					changed |= pollEvents(key);
+				}
+
+				if (changed) {
+					regenerate(watchService);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			watchService.close();
+		}
+
+		LOGGER.exiting(LOGGER.getName(), "watch");
+	}
+
+	/**
+	 *
+	 * @param key
+	 * @return true if one of the watched files changed
+	 */
+	private boolean pollEvents(WatchKey key) {
+		Path directory = watchedDirectories.get(key);
+		boolean changed = false;
+
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				changed = true;
+			} else if (directory != null && watchedFiles.contains(directory.resolve((Path) event.context()))) {
+				changed = true;
+			}
+		}
+
+		if (!key.reset()) {
+			watchedDirectories.remove(key);
+		}
+
+		return changed;
+	}
+
+	/**
+	 *
+	 * @param watchService
+	 * @throws IOException
+	 */
+	private void regenerate(WatchService watchService) throws IOException {
+		long start = System.nanoTime();
+
+		try {
+			generator.transformSwagger2Puml(specFile.getPath(), output, generateDefinitionModelOnly,
+					includeCardinality, generateSvg);
+			LOGGER.info("Regenerated " + specFile + " in " + (System.nanoTime() - start) / 1000000L + " ms");
+		} catch (RuntimeException e) {
+			LOGGER.log(Level.SEVERE, "Regenerating " + specFile + " failed after "
+					+ (System.nanoTime() - start) / 1000000L + " ms", e);
+		}
+
+		// references may have been added or removed by the change
+		watchedFiles = findLocalFiles(specFile);
+		register(watchService);
+	}
+
+	/**
+	 *
+	 * @param watchService
+	 * @throws IOException
+	 */
+	private void register(WatchService watchService) throws IOException {
+		Set<Path> directories = new LinkedHashSet<Path>();
+		for (Path file : watchedFiles) {
+			directories.add(file.getParent());
+		}
+
+		Iterator<Map.Entry<WatchKey, Path>> registered = watchedDirectories.entrySet().iterator();
+		while (registered.hasNext()) {
+			Map.Entry<WatchKey, Path> entry = registered.next();
+
+			if (!directories.remove(entry.getValue())) {
+				entry.getKey().cancel();
+				registered.remove();
+			}
+		}
+
+		for (Path directory : directories) {
+			if (directory.toFile().isDirectory()) {
+				WatchKey key = directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+						StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+				watchedDirectories.put(key, directory);
+			}
+		}
+	}
+
+	/**
+	 * The spec and every local file reachable through its {@code $ref}s. Files
+	 * without a {@code $ref} to another file are not parsed.
+	 *
+	 * @param specFile
+	 * @return the spec first, then the referenced files, which may be missing
+	 */
+	static Set<Path> findLocalFiles(File specFile) {
+		Set<Path> files = new LinkedHashSet<Path>();
+		Deque<Path> pending = new ArrayDeque<Path>();
+		pending.add(specFile.getAbsoluteFile().toPath().normalize());
+
+		while (!pending.isEmpty()) {
+			Path file = pending.poll();
+
+			if (files.add(file) && file.toFile().isFile()) {
+				try {
+					String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+
+					if (FILE_REFERENCE.matcher(content).find()) {
+						collectReferences(Yaml.mapper().readTree(content), file.getParent(), pending);
+					}
+				} catch (IOException e) {
+					LOGGER.log(Level.FINE, "Unable to read references of " + file, e);
+				}
+			}
+		}
+
+		return files;
+	}
+
+	/**
+	 *
+	 * @param node
+	 * @param baseDirectory
+	 * @param references
+	 */
+	private static void collectReferences(JsonNode node, Path baseDirectory, Deque<Path> references) {
+		if (node == null) {
+			return;
+		}
+
+		if (node.isObject()) {
+			JsonNode ref = node.get("$ref");
+
+			if (ref != null && ref.isTextual()) {
+				String location = ref.asText();
+				int fragment = location.indexOf('#');
+				location = fragment < 0 ? location : location.substring(0, fragment);
+
+				if (location.length() > 0 && !location.contains("://")) {
+					references.add(baseDirectory.resolve(location).normalize());
+				}
+			}
+		}
+
+		for (JsonNode child : node) {
+			collectReferences(child, baseDirectory, references);
+		}
+	}
+}
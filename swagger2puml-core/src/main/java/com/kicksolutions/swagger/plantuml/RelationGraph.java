@@ -0,0 +1,543 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.kicksolutions.swagger.plantuml.vo.ClassDiagram;
+import com.kicksolutions.swagger.plantuml.vo.ClassRelation;
+import com.kicksolutions.swagger.plantuml.vo.InterfaceDiagram;
+
+/**
+ * The models and interfaces of a diagram as a directed graph of their
+ * relations. Every model and interface is numbered, models before interfaces
+ * in spec order, and the relations are kept in compressed adjacency arrays of
+ * those numbers, so traversals touch no strings or boxed integers once the
+ * graph is built.
+ *
+ * <p>
+ * Relations to types the spec does not define keep their index, but are not
+ * edges; relations are counted in {@link #getRelationCount()}, edges in
+ * {@link #getEdgeCount()}. The graph is immutable and may be shared between
+ * threads.
+ * </p>
+ *
+ * @author MSANTOSH
+ *
+ */
+public final class RelationGraph {
+
+	private final String[] names;
+	private final int classCount;
+	private final Map<String, Integer> nodes;
+	/** source node of every relation, -1 for types outside the spec */
+	private final int[] sources;
+	/** target node of every relation, -1 for types outside the spec */
+	private final int[] targets;
+	/**
+	 * relations by source node in spec order, those of node n between
+	 * outgoingStart[n] and outgoingStart[n + 1]
+	 */
+	private final int[] outgoingStart;
+	private final int[] outgoing;
+	/** edges by target node in spec order, laid out like the outgoing ones */
+	private final int[] incomingStart;
+	private final int[] incoming;
+	/** edges by source node */
+	private final int[] outDegrees;
+	private final int edgeCount;
+
+	/**
+	 *
+	 * @param classDiagrams
+	 * @param interfaceDiagrams
+	 * @param relations
+	 *            relations of the whole diagram
+	 */
+	public RelationGraph(List<ClassDiagram> classDiagrams, List<InterfaceDiagram> interfaceDiagrams,
+			List<ClassRelation> relations) {
+		int nodeCount = classDiagrams.size() + interfaceDiagrams.size();
+		int relationCount = relations.size();
+
+		classCount = classDiagrams.size();
+		names = new String[nodeCount];
+		nodes = new HashMap<String, Integer>(Math.max(16, (int) (nodeCount / .75f) + 1));
+
+		for (int node = 0; node < nodeCount; node++) {
+			names[node] = node < classCount ? classDiagrams.get(node).getClassName()
+					: interfaceDiagrams.get(node - classCount).getInterfaceName();
+
+			if (names[node] != null && !nodes.containsKey(names[node])) {
+				nodes.put(names[node], node);
+			}
+		}
+
+		sources = new int[relationCount];
+		targets = new int[relationCount];
+		outgoingStart = new int[nodeCount + 1];
+		incomingStart = new int[nodeCount + 1];
+		outDegrees = new int[nodeCount];
+		int edges = 0;
+
+		for (int i = 0; i < relationCount; i++) {
+			sources[i] = getNode(relations.get(i).getSourceClass());
+			targets[i] = getNode(relations.get(i).getTargetClass());
+
+			if (sources[i] >= 0) {
+				outgoingStart[sources[i] + 1]++;
+
+				if (targets[i] >= 0) {
+					incomingStart[targets[i] + 1]++;
+					outDegrees[sources[i]]++;
+					edges++;
+				}
+			}
+		}
+		edgeCount = edges;
+
+		for (int node = 0; node < nodeCount; node++) {
+			outgoingStart[node + 1] += outgoingStart[node];
+			incomingStart[node + 1] += incomingStart[node];
+		}
+
+		outgoing = new int[outgoingStart[nodeCount]];
+		incoming = new int[incomingStart[nodeCount]];
+		int[] outgoingNext = Arrays.copyOf(outgoingStart, nodeCount);
+		int[] incomingNext = Arrays.copyOf(incomingStart, nodeCount);
+
+		for (int i = 0; i < relationCount; i++) {
+			if (sources[i] >= 0) {
+				outgoing[outgoingNext[sources[i]]++] = i;
+
+				if (targets[i] >= 0) {
+					incoming[incomingNext[targets[i]]++] = i;
+				}
+			}
+		}
+	}
+
+	/**
+	 *
+	 * @return models and interfaces
+	 */
+	public int getNodeCount() {
+		return names.length;
+	}
+
+	/**
+	 *
+	 * @return relations between models and interfaces of the spec
+	 */
+	public int getEdgeCount() {
+		return edgeCount;
+	}
+
+	/**
+	 *
+	 * @return relations the graph was built from, edges or not
+	 */
+	public int getRelationCount() {
+		return sources.length;
+	}
+
+	/**
+	 * A name used by both a model and an interface stands for the model.
+	 *
+	 * @param name
+	 * @return node of the model or interface, -1 for types outside the spec
+	 */
+	public int getNode(String name) {
+		Integer node = name != null ? nodes.get(name) : null;
+		return node != null ? node.intValue() : -1;
+	}
+
+	/**
+	 *
+	 * @param node
+	 * @return name of the model or interface
+	 */
+	public String getName(int node) {
+		return names[node];
+	}
+
+	/**
+	 *
+	 * @param node
+	 * @return true for interfaces, false for models
+	 */
+	public boolean isInterface(int node) {
+		return node >= classCount;
+	}
+
+	/**
+	 *
+	 * @param node
+	 * @return edges starting at the node
+	 */
+	public int getOutDegree(int node) {
+		return outDegrees[node];
+	}
+
+	/**
+	 *
+	 * @param node
+	 * @return edges ending at the node
+	 */
+	public int getInDegree(int node) {
+		return incomingStart[node + 1] - incomingStart[node];
+	}
+
+	/**
+	 *
+	 * @param relation
+	 *            index of a relation
+	 * @return its target node, -1 for types outside the spec
+	 */
+	int getTarget(int relation) {
+		return targets[relation];
+	}
+
+	/**
+	 *
+	 * @param node
+	 * @return indexes of the relations starting at the node, in spec order
+	 */
+	int[] getOutgoing(int node) {
+		return Arrays.copyOfRange(outgoing, outgoingStart[node], outgoingStart[node + 1]);
+	}
+
+	/**
+	 * Breadth first along the direction of the relations.
+	 *
+	 * @param start
+	 * @param maxNodes
+	 *            most nodes returned, negative for all
+	 * @return the start node and the nodes reachable from it, nearest first
+	 */
+	public int[] reach(int start, int maxNodes) {
+		int limit = maxNodes < 0 ? names.length : Math.min(maxNodes, names.length);
+		int[] order = new int[limit];
+		boolean[] visited = new boolean[names.length];
+		int size = 0;
+		int next = 0;
+
+		if (limit == 0) {
+			return order;
+		}
+
+		order[size++] = start;
+		visited[start] = true;
+
+		while (next < size && size < limit) {
+			int node = order[next++];
+
+			for (int i = outgoingStart[node]; i < outgoingStart[node + 1] && size < limit; i++) {
+				int target = targets[outgoing[i]];
+
+				if (target >= 0 && !visited[target]) {
+					visited[target] = true;
+					order[size++] = target;
+				}
+			}
+		}
+
+		return size == limit ? order : Arrays.copyOf(order, size);
+	}
+
+	/**
+	 * Breadth first along the direction of the relations.
+	 *
+	 * @param start
+	 * @return number of edges on the shortest path from the start to every
+	 *         node, -1 for nodes it does not reach
+	 */
+	public int[] getDistances(int start) {
+		int[] distances = new int[names.length];
+		int[] queue = new int[names.length];
+		int size = 0;
+		int next = 0;
+
+		Arrays.fill(distances, -1);
+		distances[start] = 0;
+		queue[size++] = start;
+
+		while (next < size) {
+			int node = queue[next++];
+
+			for (int i = outgoingStart[node]; i < outgoingStart[node + 1]; i++) {
+				int target = targets[outgoing[i]];
+
+				if (target >= 0 && distances[target] < 0) {
+					distances[target] = distances[node] + 1;
+					queue[size++] = target;
+				}
+			}
+		}
+
+		return distances;
+	}
+
+	/**
+	 *
+	 * @return weakly connected components, nodes related in either direction
+	 *         grouped together
+	 */
+	public List<int[]> getComponents() {
+		boolean[] all = new boolean[names.length];
+		Arrays.fill(all, true);
+		return getComponents(all);
+	}
+
+	/**
+	 *
+	 * @param included
+	 *            nodes to group, edges to other nodes are ignored
+	 * @return weakly connected components, each in breadth first order,
+	 *         ordered by their first node
+	 */
+	List<int[]> getComponents(boolean[] included) {
+		List<int[]> components = new ArrayList<int[]>();
+		boolean[] visited = new boolean[names.length];
+		int[] queue = new int[names.length];
+
+		for (int start = 0; start < names.length; start++) {
+			if (!included[start] || visited[start]) {
+				continue;
+			}
+
+			int size = 0;
+			int next = 0;
+			queue[size++] = start;
+			visited[start] = true;
+
+			while (next < size) {
+				int node = queue[next++];
+
+				// related nodes in the order of the relations, whichever end the node is
+				int i = outgoingStart[node];
+				int j = incomingStart[node];
+				while (i < outgoingStart[node + 1] || j < incomingStart[node + 1]) {
+					int neighbour;
+
+					if (j >= incomingStart[node + 1]
+							|| (i < outgoingStart[node + 1] && outgoing[i] < incoming[j])) {
+						neighbour = targets[outgoing[i++]];
+					} else {
+						neighbour = sources[incoming[j++]];
+					}
+
+					if (neighbour >= 0 && included[neighbour] && !visited[neighbour]) {
+						visited[neighbour] = true;
+						queue[size++] = neighbour;
+					}
+				}
+			}
+
+			components.add(Arrays.copyOf(queue, size));
+		}
+
+		return components;
+	}
+
+	/**
+	 * Tarjan's algorithm, iterative so deep graphs do not exhaust the stack.
+	 *
+	 * @return strongly connected components, nodes sorted within each; a
+	 *         component is listed after every component it has edges to
+	 */
+	public List<int[]> getStronglyConnectedComponents() {
+		int nodeCount = names.length;
+		List<int[]> components = new ArrayList<int[]>();
+		int[] index = new int[nodeCount];
+		int[] lowLink = new int[nodeCount];
+		boolean[] onStack = new boolean[nodeCount];
+		int[] stack = new int[nodeCount];
+		int[] callNodes = new int[nodeCount];
+		int[] callEdges = new int[nodeCount];
+		int stackSize = 0;
+		int counter = 0;
+
+		Arrays.fill(index, -1);
+
+		for (int root = 0; root < nodeCount; root++) {
+			if (index[root] >= 0) {
+				continue;
+			}
+
+			int depth = 0;
+			callNodes[0] = root;
+			callEdges[0] = outgoingStart[root];
+			index[root] = lowLink[root] = counter++;
+			stack[stackSize++] = root;
+			onStack[root] = true;
+
+			while (depth >= 0) {
+				int node = callNodes[depth];
+
+				if (callEdges[depth] < outgoingStart[node + 1]) {
+					int target = targets[outgoing[callEdges[depth]++]];
+
+					if (target < 0) {
+						continue;
+					}
+
+					if (index[target] < 0) {
+						index[target] = lowLink[target] = counter++;
+						stack[stackSize++] = target;
+						onStack[target] = true;
+						depth++;
+						callNodes[depth] = target;
+						callEdges[depth] = outgoingStart[target];
+					} else if (onStack[target]) {
+						lowLink[node] = Math.min(lowLink[node], index[target]);
+					}
+					continue;
+				}
+
+				if (lowLink[node] == index[node]) {
+					int from = stackSize;
+					do {
+						onStack[stack[--from]] = false;
+					} while (stack[from] != node);
+
+					int[] component = Arrays.copyOfRange(stack, from, stackSize);
+					Arrays.sort(component);
+					components.add(component);
+					stackSize = from;
+				}
+
+				depth--;
+				if (depth >= 0) {
+					int caller = callNodes[depth];
+					lowLink[caller] = Math.min(lowLink[caller], lowLink[node]);
+				}
+			}
+		}
+
+		return components;
+	}
+
+	/**
+	 *
+	 * @return strongly connected components of more than one node, and nodes
+	 *         related to themselves
+	 */
+	public List<int[]> getCycles() {
+		List<int[]> cycles = new ArrayList<int[]>();
+
+		for (int[] component : getStronglyConnectedComponents()) {
+			if (component.length > 1 || isSelfRelated(component[0])) {
+				cycles.add(component);
+			}
+		}
+
+		return cycles;
+	}
+
+	private boolean isSelfRelated(int node) {
+		for (int i = outgoingStart[node]; i < outgoingStart[node + 1]; i++) {
+			if (targets[outgoing[i]] == node) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 *
+	 * @return degree statistics over all nodes
+	 */
+	public DegreeStats getDegreeStats() {
+		return new DegreeStats(this);
+	}
+
+	@Override
+	public String toString() {
+		return "RelationGraph [nodes=" + names.length + ", edges=" + edgeCount + ", relations=" + sources.length
+				+ "]";
+	}
+
+	/**
+	 * In and out degrees of a {@link RelationGraph}, the first node wins ties.
+	 */
+	public static final class DegreeStats {
+
+		private int maxInDegree;
+		private int maxInDegreeNode = -1;
+		private int maxOutDegree;
+		private int maxOutDegreeNode = -1;
+		private int isolatedNodes;
+		private final double averageDegree;
+
+		private DegreeStats(RelationGraph graph) {
+			for (int node = 0; node < graph.getNodeCount(); node++) {
+				int inDegree = graph.getInDegree(node);
+				int outDegree = graph.getOutDegree(node);
+
+				if (inDegree > maxInDegree) {
+					maxInDegree = inDegree;
+					maxInDegreeNode = node;
+				}
+				if (outDegree > maxOutDegree) {
+					maxOutDegree = outDegree;
+					maxOutDegreeNode = node;
+				}
+				if (inDegree == 0 && outDegree == 0) {
+					isolatedNodes++;
+				}
+			}
+
+			averageDegree = graph.getNodeCount() == 0 ? 0
+					: (double) graph.getEdgeCount() / graph.getNodeCount();
+		}
+
+		public int getMaxInDegree() {
+			return maxInDegree;
+		}
+
+		/**
+		 *
+		 * @return the most referenced node, -1 without edges
+		 */
+		public int getMaxInDegreeNode() {
+			return maxInDegreeNode;
+		}
+
+		public int getMaxOutDegree() {
+			return maxOutDegree;
+		}
+
+		/**
+		 *
+		 * @return the node referencing the most nodes, -1 without edges
+		 */
+		public int getMaxOutDegreeNode() {
+			return maxOutDegreeNode;
+		}
+
+		/**
+		 *
+		 * @return nodes without any edge
+		 */
+		public int getIsolatedNodes() {
+			return isolatedNodes;
+		}
+
+		/**
+		 *
+		 * @return edges per node, the average in as well as out degree
+		 */
+		public double getAverageDegree() {
+			return averageDegree;
+		}
+
+		@Override
+		public String toString() {
+			return "DegreeStats [maxInDegree=" + maxInDegree + ", maxInDegreeNode=" + maxInDegreeNode
+					+ ", maxOutDegree=" + maxOutDegree + ", maxOutDegreeNode=" + maxOutDegreeNode
+					+ ", isolatedNodes=" + isolatedNodes + ", averageDegree=" + averageDegree + "]";
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.kicksolutions.swagger.plantuml.vo.ClassRelation;
+
+/**
+ * Hashed, insertion ordered collection of {@link ClassRelation}s which drops
+ * relations already present. Endpoints are compared ignoring case, and the
+ * first relation added for a given key wins.
+ *
+ * @author MSANTOSH
+ *
+ */
+public class RelationIndex {
+
+	private static final char KEY_SEPARATOR = '\u0000';
+
+	private final boolean compareTargetOnly;
+	private final Set<String> keys;
+	private final List<ClassRelation> relations;
+
+	/**
+	 *
+	 * @param compareTargetOnly
+	 *            when true relations are unique by target class, otherwise by
+	 *            source and target class
+	 */
+	public RelationIndex(boolean compareTargetOnly) {
+		this(compareTargetOnly, 16);
+	}
+
+	/**
+	 *
+	 * @param compareTargetOnly
+	 * @param expectedSize
+	 */
+	public RelationIndex(boolean compareTargetOnly, int expectedSize) {
+		super();
+		this.compareTargetOnly = compareTargetOnly;
+		this.keys = new HashSet<String>(Math.max(16, (int) (expectedSize / .75f) + 1));
+		this.relations = new ArrayList<ClassRelation>(expectedSize);
+	}
+
+	/**
+	 * Adds the relation unless an equivalent one is already indexed. Relations
+	 * with an empty endpoint can not be compared and are always kept.
+	 *
+	 * @param relation
+	 * @return true if the relation was added
+	 */
+	public boolean add(ClassRelation relation) {
+		String key = getKey(relation);
+
+		if (key != null && !keys.add(key)) {
+			return false;
+		}
+
+		relations.add(relation);
+		return true;
+	}
+
+	/**
+	 *
+	 * @param relations
+	 * @return
+	 */
+	public RelationIndex addAll(List<ClassRelation> relations) {
+		for (ClassRelation relation : relations) {
+			add(relation);
+		}
+		return this;
+	}
+
+	/**
+	 *
+	 * @return unique relations in the order they were first added
+	 */
+	public List<ClassRelation> getRelations() {
+		return relations;
+	}
+
+	public int size() {
+		return relations.size();
+	}
+
+	/**
+	 *
+	 * @param relation
+	 * @return normalized key, or null when the relation has an empty endpoint
+	 */
+	private String getKey(ClassRelation relation) {
+		String targetClass = relation.getTargetClass();
+
+		if (StringUtils.isEmpty(targetClass)) {
+			return null;
+		}
+
+		if (compareTargetOnly) {
+			return normalize(targetClass);
+		}
+
+		String sourceClass = relation.getSourceClass();
+
+		if (StringUtils.isEmpty(sourceClass)) {
+			return null;
+		}
+
+		return new StringBuilder(sourceClass.length() + targetClass.length() + 1).append(normalize(sourceClass))
+				.append(KEY_SEPARATOR).append(normalize(targetClass)).toString();
+	}
+
+	/**
+	 * Folds case the same way {@link String#equalsIgnoreCase(String)} compares
+	 * characters, so two names share a key exactly when they are equal ignoring
+	 * case.
+	 *
+	 * @param name
+	 * @return
+	 */
+	static String normalize(String name) {
+		int length = name.length();
+		int index = 0;
+
+		while (index < length && isFolded(name.charAt(index))) {
+			index++;
+		}
+
+		if (index == length) {
+			return name;
+		}
+
+		char[] folded = name.toCharArray();
+		for (; index < length; index++) {
+			folded[index] = Character.toLowerCase(Character.toUpperCase(folded[index]));
+		}
+
+		return new String(folded);
+	}
+
+	private static boolean isFolded(char c) {
+		return Character.toLowerCase(Character.toUpperCase(c)) == c;
+	}
+}
@@ -0,0 +1,95 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.kicksolutions.swagger.plantuml.vo.SpecReport;
+
+import io.swagger.util.Json;
+
+/**
+ * Collects the {@link SpecReport}s of a run, from any number of threads, and
+ * writes them as JSON for dashboards tracking conversion cost over time.
+ *
+ * @author MSANTOSH
+ *
+ */
+public class RunReport {
+
+	public static final String REPORT_FILE_NAME = "swagger2puml-report.json";
+
+	private final long start = System.nanoTime();
+	private final List<SpecReport> specs = new ArrayList<SpecReport>();
+
+	/**
+	 * Starts the run, heap peaks are measured from here on.
+	 */
+	public RunReport() {
+		super();
+		ConversionMetrics.resetPeakHeap();
+	}
+
+	/**
+	 *
+	 * @param specFile
+	 * @param outputDirectory
+	 * @return metrics whose report is added to the run once finished
+	 */
+	public ConversionMetrics startSpec(String specFile, String outputDirectory) {
+		return new ConversionMetrics(new SpecReport(specFile, outputDirectory));
+	}
+
+	/**
+	 *
+	 * @param metrics
+	 */
+	public void finishSpec(ConversionMetrics metrics) {
+		SpecReport report = metrics.finish();
+
+		if (report != null) {
+			synchronized (specs) {
+				specs.add(report);
+			}
+		}
+	}
+
+	/**
+	 *
+	 * @return reports of the finished specs, ordered by spec file
+	 */
+	public List<SpecReport> getSpecs() {
+		List<SpecReport> reports;
+		synchronized (specs) {
+			reports = new ArrayList<SpecReport>(specs);
+		}
+
+		Collections.sort(reports, new Comparator<SpecReport>() {
+			@Override
+			public int compare(SpecReport first, SpecReport second) {
+				return first.getSpecFile().compareTo(second.getSpecFile());
+			}
+		});
+
+		return reports;
+	}
+
+	/**
+	 *
+	 * @param reportFile
+	 * @throws IOException
+	 */
+	public void writeJson(File reportFile) throws IOException {
+		Map<String, Object> report = new LinkedHashMap<String, Object>();
+		report.put("wallNanos", System.nanoTime() - start);
+		report.put("peakHeapBytes", ConversionMetrics.getPeakHeapBytes());
+		report.put("specs", getSpecs());
+
+		Json.pretty().writeValue(reportFile, report);
+	}
+}
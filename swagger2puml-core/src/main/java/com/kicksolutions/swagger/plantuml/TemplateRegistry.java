@@ -0,0 +1,197 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Logger;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import com.github.mustachejava.DefaultMustacheFactory;
+import com.github.mustachejava.Mustache;
+
+/**
+ * JVM wide cache of compiled Mustache templates. The bundled
+ * {@code puml.mustache} and {@code puml-index.mustache} are compiled once;
+ * user supplied template files are compiled on first use and recompiled only
+ * when their timestamp or size changes. Compiled templates are immutable and
+ * shared by all threads.
+ *
+ * @author MSANTOSH
+ *
+ */
+public class TemplateRegistry {
+
+	private static final Logger LOGGER = Logger.getLogger(TemplateRegistry.class.getName());
+
+	public static final String DEFAULT_TEMPLATE = "puml.mustache";
+	/** links the partitions of a partitioned diagram */
+	public static final String INDEX_TEMPLATE = "puml-index.mustache";
+
+	private static final TemplateRegistry INSTANCE = new TemplateRegistry();
+
+	private final ConcurrentMap<String, CompiledTemplate> templates = new ConcurrentHashMap<String, CompiledTemplate>();
+
+	private final ConcurrentMap<String, Mustache> bundledTemplates = new ConcurrentHashMap<String, Mustache>();
+	private volatile String defaultTemplateVersion;
+
+	protected TemplateRegistry() {
+		super();
+	}
+
+	public static TemplateRegistry getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 *
+	 * @param templatePath
+	 *            template file, or empty for the bundled template
+	 * @return
+	 * @throws IOException
+	 */
+	public Mustache getTemplate(String templatePath) throws IOException {
+		if (StringUtils.isEmpty(templatePath)) {
+			return getBundledTemplate(DEFAULT_TEMPLATE);
+		}
+
+		File templateFile = new File(templatePath).getAbsoluteFile();
+		String key = templateFile.getPath();
+		long lastModified = templateFile.lastModified();
+		long length = templateFile.length();
+
+		CompiledTemplate compiled = templates.get(key);
+		if (compiled != null && compiled.isCurrent(lastModified, length)) {
+			return compiled.mustache;
+		}
+
+		synchronized (this) {
+			compiled = templates.get(key);
+			if (compiled == null || !compiled.isCurrent(lastModified, length)) {
+				compiled = compile(templateFile, lastModified, length);
+				templates.put(key, compiled);
+			}
+		}
+
+		return compiled.mustache;
+	}
+
+	/**
+	 * Identifies the template content diagrams are rendered with, cheaply
+	 * enough to be part of every build fingerprint.
+	 *
+	 * @param templatePath
+	 *            template file, or empty for the bundled template
+	 * @return
+	 * @throws IOException
+	 */
+	public String getTemplateVersion(String templatePath) throws IOException {
+		if (StringUtils.isNotEmpty(templatePath)) {
+			File templateFile = new File(templatePath).getAbsoluteFile();
+			return new StringBuilder().append(templateFile.getPath()).append('@')
+					.append(templateFile.lastModified()).append(':').append(templateFile.length()).toString();
+		}
+
+		String version = defaultTemplateVersion;
+		if (version == null) {
+			InputStream inputStream = TemplateRegistry.class.getClassLoader().getResourceAsStream(DEFAULT_TEMPLATE);
+			if (inputStream == null) {
+				throw new IOException("Missing " + DEFAULT_TEMPLATE);
+			}
+
+			try {
+				version = "classpath:" + BuildManifest.hash(IOUtils.toByteArray(inputStream));
+			} finally {
+				inputStream.close();
+			}
+			defaultTemplateVersion = version;
+		}
+
+		return version;
+	}
+
+	/**
+	 *
+	 * @return the bundled template linking the partitions of a diagram
+	 */
+	public Mustache getIndexTemplate() {
+		return getBundledTemplate(INDEX_TEMPLATE);
+	}
+
+	/**
+	 *
+	 * @param name
+	 *            classpath resource
+	 * @return
+	 */
+	private Mustache getBundledTemplate(String name) {
+		Mustache mustache = bundledTemplates.get(name);
+
+		if (mustache == null) {
+			synchronized (this) {
+				mustache = bundledTemplates.get(name);
+				if (mustache == null) {
+					LOGGER.fine("Compiling " + name);
+					mustache = new DefaultMustacheFactory().compile(name);
+					bundledTemplates.put(name, mustache);
+				}
+			}
+		}
+
+		return mustache;
+	}
+
+	/**
+	 * Compiles with a fresh factory rooted at the template's directory, so
+	 * partials resolve next to the template and are picked up again on
+	 * recompilation.
+	 *
+	 * @param templateFile
+	 * @param lastModified
+	 * @param length
+	 * @return
+	 * @throws IOException
+	 */
+	private CompiledTemplate compile(File templateFile, long lastModified, long length) throws IOException {
+		if (!templateFile.isFile()) {
+			throw new IOException("Template File is not valid " + templateFile);
+		}
+
+		LOGGER.info("Compiling Template " + templateFile);
+
+		Reader reader = new InputStreamReader(new FileInputStream(templateFile), StandardCharsets.UTF_8);
+		try {
+			DefaultMustacheFactory mf = new DefaultMustacheFactory(templateFile.getParentFile());
+			return new CompiledTemplate(mf.compile(reader, templateFile.getName()), lastModified, length);
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 *
+	 */
+	private static final class CompiledTemplate {
+
+		private final Mustache mustache;
+		private final long lastModified;
+		private final long length;
+
+		private CompiledTemplate(Mustache mustache, long lastModified, long length) {
+			this.mustache = mustache;
+			this.lastModified = lastModified;
+			this.length = length;
+		}
+
+		private boolean isCurrent(long lastModified, long length) {
+			return this.lastModified == lastModified && this.length == length;
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package com.kicksolutions.swagger.plantuml.vo;
+
+/**
+ * Outcome of converting a single spec during a batch run.
+ *
+ * @author MSANTOSH
+ *
+ */
+public class BatchResult {
+
+	private String specFile;
+	private String outputDirectory;
+	private boolean success;
+	private boolean skipped;
+	private String errorMessage;
+	private long elapsedMillis;
+
+	public BatchResult() {
+		super();
+	}
+
+	public BatchResult(String specFile, String outputDirectory, boolean success, String errorMessage,
+			long elapsedMillis) {
+		super();
+		this.specFile = specFile;
+		this.outputDirectory = outputDirectory;
+		this.success = success;
+		this.errorMessage = errorMessage;
+		this.elapsedMillis = elapsedMillis;
+	}
+
+	public String getSpecFile() {
+		return specFile;
+	}
+
+	public void setSpecFile(String specFile) {
+		this.specFile = specFile;
+	}
+
+	public String getOutputDirectory() {
+		return outputDirectory;
+	}
+
+	public void setOutputDirectory(String outputDirectory) {
+		this.outputDirectory = outputDirectory;
+	}
+
+	public boolean isSuccess() {
+		return success;
+	}
+
+	public void setSuccess(boolean success) {
+		this.success = success;
+	}
+
+	public boolean isSkipped() {
+		return skipped;
+	}
+
+	public void setSkipped(boolean skipped) {
+		this.skipped = skipped;
+	}
+
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+	public void setErrorMessage(String errorMessage) {
+		this.errorMessage = errorMessage;
+	}
+
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	public void setElapsedMillis(long elapsedMillis) {
+		this.elapsedMillis = elapsedMillis;
+	}
+
+	@Override
+	public String toString() {
+		return "BatchResult [specFile=" + specFile + ", outputDirectory=" + outputDirectory + ", success=" + success
+				+ ", skipped=" + skipped + ", errorMessage=" + errorMessage + ", elapsedMillis=" + elapsedMillis + "]";
+	}
+}
@@ -0,0 +1,27 @@
+package com.kicksolutions.swagger.plantuml.vo;
+
+/**
+ * Cardinality of a member or relation, rendered as its PlantUML label.
+ *
+ * @author MSANTOSH
+ *
+ */
+public enum Cardinality {
+
+	ONE_TO_ONE("1..1"), NONE_TO_ONE("0..1"), ONE_TO_MANY("1..*"), NONE_TO_MANY("0..*");
+
+	private final String label;
+
+	private Cardinality(String label) {
+		this.label = label;
+	}
+
+	public String getLabel() {
+		return label;
+	}
+
+	@Override
+	public String toString() {
+		return label;
+	}
+}
@@ -1,24 +1,31 @@
 /**
- * 
+ *
  */
 package com.kicksolutions.swagger.plantuml.vo;
 
 /**
+ * Immutable member of a {@link ClassDiagram}.
+ *
  * @author MSANTOSH
  *
  */
-public class ClassMembers {
-
-	private String dataType;
-	private String name;
-	private String className;
-	private String cardinality;
-	
-	public ClassMembers() {
-		super();
-	}
-
-	public ClassMembers(String dataType, String name, String className, String cardinality) {
+public final class ClassMembers {
+
+	private final String dataType;
+	private final String name;
+	private final String className;
+	private final Cardinality cardinality;
+
+	/**
+	 *
+	 * @param dataType
+	 * @param name
+	 * @param className
+	 *            model the member refers to, null for none
+	 * @param cardinality
+	 *            null when cardinalities are not drawn
+	 */
+	public ClassMembers(String dataType, String name, String className, Cardinality cardinality) {
 		super();
 		this.dataType = dataType;
 		this.name = name;
@@ -30,37 +37,21 @@ public class ClassMembers {
 		return dataType;
 	}
 
-	public void setDataType(String dataType) {
-		this.dataType = dataType;
-	}
-
 	public String getName() {
 		return name;
 	}
 
-	public void setName(String name) {
-		this.name = name;
-	}
-
 	public String getClassName() {
 		return className;
 	}
 
-	public void setClassName(String className) {
-		this.className = className;
-	}
-
-	public String getCardinality() {
+	public Cardinality getCardinality() {
 		return cardinality;
 	}
 
-	public void setCardinality(String cardinality) {
-		this.cardinality = cardinality;
-	}
-
 	@Override
 	public String toString() {
 		return "ClassMembers [dataType=" + dataType + ", name=" + name + ", className=" + className + ", cardinality="
 				+ cardinality + "]";
-	}	
+	}
 }
@@ -1,76 +1,64 @@
 /**
- * 
+ *
  */
 package com.kicksolutions.swagger.plantuml.vo;
 
 /**
+ * Immutable relation from a model or interface to a model.
+ *
  * @author MSANTOSH
  *
  */
-public class ClassRelation {
+public final class ClassRelation {
 
-	private String targetClass;
-	private boolean isExtension;
-	private boolean isComposition;
-	private String cardinality;
-	private String sourceClass;
-	
-	public ClassRelation() {
-		super();
-	}
-	
-	public ClassRelation(String targetClass, boolean isExtension, boolean isComposition,String cardinality,String sourceClass) {
+	private final String sourceClass;
+	private final String targetClass;
+	private final RelationKind kind;
+	private final Cardinality cardinality;
+
+	/**
+	 *
+	 * @param sourceClass
+	 * @param targetClass
+	 * @param kind
+	 * @param cardinality
+	 *            null when cardinalities are not drawn
+	 */
+	public ClassRelation(String sourceClass, String targetClass, RelationKind kind, Cardinality cardinality) {
 		super();
+		this.sourceClass = sourceClass;
 		this.targetClass = targetClass;
-		this.isExtension = isExtension;
-		this.isComposition = isComposition;
+		this.kind = kind;
 		this.cardinality = cardinality;
-		this.sourceClass = sourceClass;
+	}
+
+	public String getSourceClass() {
+		return sourceClass;
 	}
 
 	public String getTargetClass() {
 		return targetClass;
 	}
 
-	public void setTargetClass(String targetClass) {
-		this.targetClass = targetClass;
+	public RelationKind getKind() {
+		return kind;
 	}
 
 	public boolean isExtension() {
-		return isExtension;
-	}
-
-	public void setExtension(boolean isExtension) {
-		this.isExtension = isExtension;
+		return kind == RelationKind.EXTENSION;
 	}
 
 	public boolean isComposition() {
-		return isComposition;
-	}
-
-	public void setComposition(boolean isComposition) {
-		this.isComposition = isComposition;
+		return kind == RelationKind.COMPOSITION;
 	}
 
-	public String getCardinality() {
+	public Cardinality getCardinality() {
 		return cardinality;
 	}
 
-	public void setCardinality(String cardinality) {
-		this.cardinality = cardinality;
-	}
-
-	public String getSourceClass() {
-		return sourceClass;
-	}
-
-	public void setSourceClass(String sourceClass) {
-		this.sourceClass = sourceClass;
-	}
-
 	@Override
 	public String toString() {
-		return "ClassRelation [targetClass=" + targetClass + ", isExtension=" + isExtension + ", isComposition="
-				+ isComposition + ", cardinality=" + cardinality + ", sourceClass=" + sourceClass + "]";
+		return "ClassRelation [sourceClass=" + sourceClass + ", targetClass=" + targetClass + ", kind=" + kind
+				+ ", cardinality=" + cardinality + "]";
 	}
 }
@@ -0,0 +1,63 @@
+package com.kicksolutions.swagger.plantuml.vo;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Unmodifiable copies of the lists held by the diagram model, sized to their
+ * elements.
+ *
+ * @author MSANTOSH
+ *
+ */
+final class CompactLists {
+
+	private CompactLists() {
+		super();
+	}
+
+	/**
+	 *
+	 * @param list
+	 *            may be null
+	 * @return the shared empty list, a singleton list or an unmodifiable list
+	 *         over an exactly sized array
+	 */
+	static <T> List<T> copyOf(List<T> list) {
+		if (list == null || list.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		if (list.size() == 1) {
+			return Collections.singletonList(list.get(0));
+		}
+
+		return new ArrayView<T>(list.toArray());
+	}
+
+	/**
+	 * Unmodifiable list over an array nobody else holds, without the wrapper
+	 * {@code Collections.unmodifiableList(Arrays.asList(..))} would need.
+	 */
+	private static final class ArrayView<T> extends AbstractList<T> implements RandomAccess {
+
+		private final Object[] elements;
+
+		private ArrayView(Object[] elements) {
+			this.elements = elements;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public T get(int index) {
+			return (T) elements[index];
+		}
+
+		@Override
+		public int size() {
+			return elements.length;
+		}
+	}
+}
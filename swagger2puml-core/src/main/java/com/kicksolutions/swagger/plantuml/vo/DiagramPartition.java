@@ -0,0 +1,88 @@
+package com.kicksolutions.swagger.plantuml.vo;
+
+import java.util.List;
+
+/**
+ * Immutable part of a spec's diagram, rendered on its own and linked from the
+ * index diagram. Models may be part of more than one partition when
+ * partitioning by tag.
+ *
+ * @author MSANTOSH
+ *
+ */
+public final class DiagramPartition {
+
+	private final String name;
+	private final String alias;
+	private final String fileName;
+	private final List<ClassDiagram> classDiagrams;
+	private final List<InterfaceDiagram> interfaceDiagrams;
+	private final List<ClassRelation> entityRelations;
+
+	/**
+	 *
+	 * @param name
+	 * @param alias
+	 *            name of the partition on the index diagram
+	 * @param fileName
+	 *            file name of the partition without extension
+	 * @param classDiagrams
+	 *            copied
+	 * @param interfaceDiagrams
+	 *            copied
+	 * @param entityRelations
+	 *            relations drawn in the partition, copied
+	 */
+	public DiagramPartition(String name, String alias, String fileName, List<ClassDiagram> classDiagrams,
+			List<InterfaceDiagram> interfaceDiagrams, List<ClassRelation> entityRelations) {
+		super();
+		this.name = name;
+		this.alias = alias;
+		this.fileName = fileName;
+		this.classDiagrams = CompactLists.copyOf(classDiagrams);
+		this.interfaceDiagrams = CompactLists.copyOf(interfaceDiagrams);
+		this.entityRelations = CompactLists.copyOf(entityRelations);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getAlias() {
+		return alias;
+	}
+
+	/**
+	 * 
+	 * @return file name of the partition without extension
+	 */
+	public String getFileName() {
+		return fileName;
+	}
+
+	public List<ClassDiagram> getClassDiagrams() {
+		return classDiagrams;
+	}
+
+	public List<InterfaceDiagram> getInterfaceDiagrams() {
+		return interfaceDiagrams;
+	}
+
+	public List<ClassRelation> getEntityRelations() {
+		return entityRelations;
+	}
+
+	public int getClassCount() {
+		return classDiagrams.size();
+	}
+
+	public int getInterfaceCount() {
+		return interfaceDiagrams.size();
+	}
+
+	@Override
+	public String toString() {
+		return "DiagramPartition [name=" + name + ", alias=" + alias + ", fileName=" + fileName + ", classes="
+				+ getClassCount() + ", interfaces=" + getInterfaceCount() + "]";
+	}
+}
@@ -3,27 +3,33 @@ package com.kicksolutions.swagger.plantuml.vo;
 import java.util.List;
 
 /**
- * 
+ * Immutable diagram of an interface, safe to share between threads.
+ *
  * @author MSANTOSH
  *
  */
-public class InterfaceDiagram {
-	
-	private String interfaceName;
-	private List<MethodDefinitions> methods;
-	private List<ClassRelation> childClass;
-	private String errorClass;
-
-	public InterfaceDiagram() {
-		super();
-	}
-
-	public InterfaceDiagram(String interfaceName, List<MethodDefinitions> methods,
-			List<ClassRelation> childClass,String errorClass) {
+public final class InterfaceDiagram {
+
+	private final String interfaceName;
+	private final List<MethodDefinitions> methods;
+	private final List<ClassRelation> childClass;
+	private final String errorClass;
+
+	/**
+	 *
+	 * @param interfaceName
+	 * @param methods
+	 *            copied
+	 * @param childClass
+	 *            relations starting at this interface, copied
+	 * @param errorClass
+	 */
+	public InterfaceDiagram(String interfaceName, List<MethodDefinitions> methods, List<ClassRelation> childClass,
+			String errorClass) {
 		super();
 		this.interfaceName = interfaceName;
-		this.methods = methods;
-		this.childClass = childClass;
+		this.methods = CompactLists.copyOf(methods);
+		this.childClass = CompactLists.copyOf(childClass);
 		this.errorClass = errorClass;
 	}
 
@@ -31,34 +37,18 @@ public class InterfaceDiagram {
 		return interfaceName;
 	}
 
-	public void setInterfaceName(String interfaceName) {
-		this.interfaceName = interfaceName;
-	}
-
 	public List<MethodDefinitions> getMethods() {
 		return methods;
 	}
 
-	public void setMethods(List<MethodDefinitions> methods) {
-		this.methods = methods;
-	}
-
 	public List<ClassRelation> getChildClass() {
 		return childClass;
 	}
 
-	public void setChildClass(List<ClassRelation> childClass) {
-		this.childClass = childClass;
-	}
-
 	public String getErrorClass() {
 		return errorClass;
 	}
 
-	public void setErrorClass(String errorClass) {
-		this.errorClass = errorClass;
-	}
-
 	@Override
 	public String toString() {
 		return "InterfaceDiagram [interfaceName=" + interfaceName + ", methods=" + methods + ", childClass="
@@ -1,43 +1,50 @@
 package com.kicksolutions.swagger.plantuml.vo;
 
 /**
- * 
+ * Immutable method of an {@link InterfaceDiagram}.
+ *
  * @author MSANTOSH
  *
  */
-public class MethodDefinitions {
-	
-	private String returnType;
-	private String methodDefinition;
-	
+public final class MethodDefinitions {
+
+	private final String returnType;
+	private final String methodDefinition;
+	private final String errorClass;
+
 	public MethodDefinitions(String returnType, String methodDefinition) {
-		super();
-		this.returnType = returnType;
-		this.methodDefinition = methodDefinition;
+		this(returnType, methodDefinition, null);
 	}
 
-	public MethodDefinitions() {
+	/**
+	 *
+	 * @param returnType
+	 * @param methodDefinition
+	 * @param errorClass
+	 *            null to take the error class of the interface
+	 */
+	public MethodDefinitions(String returnType, String methodDefinition, String errorClass) {
 		super();
+		this.returnType = returnType;
+		this.methodDefinition = methodDefinition;
+		this.errorClass = errorClass;
 	}
 
 	public String getReturnType() {
 		return returnType;
 	}
 
-	public void setReturnType(String returnType) {
-		this.returnType = returnType;
-	}
-
 	public String getMethodDefinition() {
 		return methodDefinition;
 	}
 
-	public void setMethodDefinition(String methodDefinition) {
-		this.methodDefinition = methodDefinition;
+	public String getErrorClass() {
+		return errorClass;
 	}
 
 	@Override
 	public String toString() {
-		return "MethodDefinitions [returnType=" + returnType + ", methodDefinition=" + methodDefinition + "]";
+		return "MethodDefinitions [returnType=" + returnType + ", methodDefinition=" + methodDefinition
+				+ ", errorClass=" + errorClass + "]";
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,48 @@
+package com.kicksolutions.swagger.plantuml.vo;
+
+/**
+ * Immutable count of the relations between the models and interfaces of two
+ * partitions, drawn as a single arrow on the index diagram.
+ *
+ * @author MSANTOSH
+ *
+ */
+public final class PartitionRelation {
+
+	private final String sourcePartition;
+	private final String targetPartition;
+	private final int relations;
+
+	public PartitionRelation(String sourcePartition, String targetPartition, int relations) {
+		super();
+		this.sourcePartition = sourcePartition;
+		this.targetPartition = targetPartition;
+		this.relations = relations;
+	}
+
+	/**
+	 * 
+	 * @return alias of the partition the relations start in
+	 */
+	public String getSourcePartition() {
+		return sourcePartition;
+	}
+
+	/**
+	 * 
+	 * @return alias of the partition the relations point to
+	 */
+	public String getTargetPartition() {
+		return targetPartition;
+	}
+
+	public int getRelations() {
+		return relations;
+	}
+
+	@Override
+	public String toString() {
+		return "PartitionRelation [sourcePartition=" + sourcePartition + ", targetPartition=" + targetPartition
+				+ ", relations=" + relations + "]";
+	}
+}
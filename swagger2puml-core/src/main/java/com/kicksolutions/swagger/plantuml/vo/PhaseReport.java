@@ -0,0 +1,67 @@
+package com.kicksolutions.swagger.plantuml.vo;
+
+/**
+ * Cost of one phase of converting a spec. CPU time and allocations include the
+ * worker threads the phase was spread over; they are -1 when the JVM can not
+ * measure them.
+ *
+ * @author MSANTOSH
+ *
+ */
+public class PhaseReport {
+
+	private String name;
+	private long wallNanos;
+	private long cpuNanos;
+	private long allocatedBytes;
+
+	public PhaseReport() {
+		super();
+	}
+
+	public PhaseReport(String name, long wallNanos, long cpuNanos, long allocatedBytes) {
+		super();
+		this.name = name;
+		this.wallNanos = wallNanos;
+		this.cpuNanos = cpuNanos;
+		this.allocatedBytes = allocatedBytes;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public long getWallNanos() {
+		return wallNanos;
+	}
+
+	public void setWallNanos(long wallNanos) {
+		this.wallNanos = wallNanos;
+	}
+
+	public long getCpuNanos() {
+		return cpuNanos;
+	}
+
+	public void setCpuNanos(long cpuNanos) {
+		this.cpuNanos = cpuNanos;
+	}
+
+	public long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+	public void setAllocatedBytes(long allocatedBytes) {
+		this.allocatedBytes = allocatedBytes;
+	}
+
+	@Override
+	public String toString() {
+		return "PhaseReport [name=" + name + ", wallNanos=" + wallNanos + ", cpuNanos=" + cpuNanos
+				+ ", allocatedBytes=" + allocatedBytes + "]";
+	}
+}
@@ -0,0 +1,21 @@
+package com.kicksolutions.swagger.plantuml.vo;
+
+/**
+ * How the source of a {@link ClassRelation} uses its target.
+ *
+ * @author MSANTOSH
+ *
+ */
+public enum RelationKind {
+
+	/**
+	 * Drawn {@code -->}, from array and map models to their items and from
+	 * interfaces to the models of their operations.
+	 */
+	EXTENSION,
+
+	/**
+	 * Drawn {@code *--}, from models to the models of their members.
+	 */
+	COMPOSITION
+}
@@ -0,0 +1,132 @@
+package com.kicksolutions.swagger.plantuml.vo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cost of converting a single spec, phase by phase, with the size of what was
+ * converted and produced.
+ *
+ * @author MSANTOSH
+ *
+ */
+public class SpecReport {
+
+	private String specFile;
+	private String outputDirectory;
+	private boolean success = true;
+	private boolean skipped;
+	private String errorMessage;
+	private long wallNanos;
+	private int models;
+	private int operations;
+	private int relations;
+	private long outputBytes;
+	private List<PhaseReport> phases = new ArrayList<PhaseReport>();
+
+	public SpecReport() {
+		super();
+	}
+
+	public SpecReport(String specFile, String outputDirectory) {
+		super();
+		this.specFile = specFile;
+		this.outputDirectory = outputDirectory;
+	}
+
+	public String getSpecFile() {
+		return specFile;
+	}
+
+	public void setSpecFile(String specFile) {
+		this.specFile = specFile;
+	}
+
+	public String getOutputDirectory() {
+		return outputDirectory;
+	}
+
+	public void setOutputDirectory(String outputDirectory) {
+		this.outputDirectory = outputDirectory;
+	}
+
+	public boolean isSuccess() {
+		return success;
+	}
+
+	public void setSuccess(boolean success) {
+		this.success = success;
+	}
+
+	public boolean isSkipped() {
+		return skipped;
+	}
+
+	public void setSkipped(boolean skipped) {
+		this.skipped = skipped;
+	}
+
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+	public void setErrorMessage(String errorMessage) {
+		this.errorMessage = errorMessage;
+	}
+
+	public long getWallNanos() {
+		return wallNanos;
+	}
+
+	public void setWallNanos(long wallNanos) {
+		this.wallNanos = wallNanos;
+	}
+
+	public int getModels() {
+		return models;
+	}
+
+	public void setModels(int models) {
+		this.models = models;
+	}
+
+	public int getOperations() {
+		return operations;
+	}
+
+	public void setOperations(int operations) {
+		this.operations = operations;
+	}
+
+	public int getRelations() {
+		return relations;
+	}
+
+	public void setRelations(int relations) {
+		this.relations = relations;
+	}
+
+	public long getOutputBytes() {
+		return outputBytes;
+	}
+
+	public void setOutputBytes(long outputBytes) {
+		this.outputBytes = outputBytes;
+	}
+
+	public List<PhaseReport> getPhases() {
+		return phases;
+	}
+
+	public void setPhases(List<PhaseReport> phases) {
+		this.phases = phases;
+	}
+
+	@Override
+	public String toString() {
+		return "SpecReport [specFile=" + specFile + ", outputDirectory=" + outputDirectory + ", success=" + success
+				+ ", skipped=" + skipped + ", errorMessage=" + errorMessage + ", wallNanos=" + wallNanos
+				+ ", models=" + models + ", operations=" + operations + ", relations=" + relations
+				+ ", outputBytes=" + outputBytes + ", phases=" + phases + "]";
+	}
+}
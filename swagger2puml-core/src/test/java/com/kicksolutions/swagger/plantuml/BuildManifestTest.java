@@ -0,0 +1,87 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+
+import junit.framework.TestCase;
+
+/**
+ * 
+ * @author MSANTOSH
+ *
+ */
+public class BuildManifestTest extends TestCase {
+
+	private static final Map<String, String> OPTIONS = Collections.singletonMap("includeCardinality", "true");
+
+	private File root;
+
+	@Override
+	protected void setUp() throws IOException {
+		root = Files.createTempDirectory("swagger2puml-manifest").toFile();
+	}
+
+	@Override
+	protected void tearDown() throws IOException {
+		FileUtils.deleteDirectory(root);
+	}
+
+	public void testFingerprintFollowsLocalReferences() throws IOException {
+		File spec = write("swagger.yaml", "definitions:\n  Pet:\n    properties:\n      tag:\n"
+				+ "        $ref: 'models/tag.yaml#/Tag'\n      owner:\n        $ref: '#/definitions/User'\n");
+		File models = write("models/tag.yaml", "Tag:\n  properties:\n    label:\n"
+				+ "      $ref: \"../label.json\"\n");
+		File label = write("label.json", "{ \"type\": \"string\" }");
+
+		assertEquals(3, PlantUMLWatcher.findLocalFiles(spec).size());
+		String fingerprint = fingerprint(spec);
+		assertEquals(fingerprint, fingerprint(spec));
+
+		FileUtils.writeStringToFile(label, "{ \"type\": \"integer\" }", StandardCharsets.UTF_8.name());
+		String changed = fingerprint(spec);
+		assertFalse(fingerprint.equals(changed));
+
+		assertTrue(models.delete());
+		assertFalse(changed.equals(fingerprint(spec)));
+	}
+
+	public void testFingerprintOfSpecWithoutReferences() throws IOException {
+		File spec = write("swagger.yaml", "definitions:\n  Pet:\n    properties:\n      owner:\n"
+				+ "        $ref: '#/definitions/User'\n");
+
+		assertEquals(Collections.singleton(spec.toPath()), PlantUMLWatcher.findLocalFiles(spec));
+		assertEquals(BuildManifest.fingerprint(spec, OPTIONS), fingerprint(spec));
+	}
+
+	public void testOnlyReferencesToOtherFilesAreParsed() {
+		assertFalse(hasFileReference("\"$ref\": \"#/definitions/Pet\""));
+		assertFalse(hasFileReference("$ref: '#/definitions/Pet'"));
+		assertFalse(hasFileReference("$ref:\"#/x\""));
+		assertFalse(hasFileReference("$ref: #/definitions/Pet"));
+		assertFalse(hasFileReference("description: no references"));
+
+		assertTrue(hasFileReference("\"$ref\": \"models/pet.json#/Pet\""));
+		assertTrue(hasFileReference("$ref: 'tag.yaml'"));
+		assertTrue(hasFileReference("$ref: ../label.json"));
+	}
+
+	private static boolean hasFileReference(String content) {
+		return PlantUMLWatcher.FILE_REFERENCE.matcher(content).find();
+	}
+
+	private static String fingerprint(File spec) throws IOException {
+		return BuildManifest.fingerprint(PlantUMLWatcher.findLocalFiles(spec), OPTIONS);
+	}
+
+	private File write(String path, String content) throws IOException {
+		File file = new File(root, path);
+		FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8.name());
+		return file;
+	}
+}
@@ -0,0 +1,86 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+
+import io.swagger.models.Swagger;
+import io.swagger.parser.SwaggerParser;
+import io.swagger.util.Json;
+import io.swagger.util.Yaml;
+import junit.framework.TestCase;
+
+/**
+ *
+ * @author MSANTOSH
+ *
+ */
+public class DefinitionsReaderTest extends TestCase {
+
+	private File root;
+	private File yamlSpec;
+
+	@Override
+	protected void setUp() throws Exception {
+		root = Files.createTempDirectory("swagger2puml-definitions").toFile();
+		yamlSpec = new File(getClass().getResource("/store.yaml").toURI());
+	}
+
+	@Override
+	protected void tearDown() throws IOException {
+		FileUtils.deleteDirectory(root);
+	}
+
+	public void testReadsTheDefinitionsOfAYamlSpecLikeSwaggerParser() throws IOException {
+		assertSameDefinitions(yamlSpec);
+	}
+
+	public void testReadsTheDefinitionsOfAJsonSpecLikeSwaggerParser() throws IOException {
+		File jsonSpec = write("store.json", Json.pretty(Yaml.mapper().readTree(yamlSpec)));
+
+		assertSameDefinitions(jsonSpec);
+	}
+
+	public void testSkipsEverythingButInfoAndDefinitions() throws IOException {
+		Swagger swagger = new DefinitionsReader().read(yamlSpec);
+
+		assertTrue(swagger.getPaths().isEmpty());
+		assertNull(swagger.getTags());
+		assertNull(swagger.getParameters());
+	}
+
+	public void testLeavesSwagger1SpecsToSwaggerParser() throws IOException {
+		File spec = write("api-docs.json", "{ \"swaggerVersion\": \"1.2\", \"apiVersion\": \"1.0\", "
+				+ "\"apis\": [ { \"path\": \"/pet\" } ], \"models\": { \"Pet\": { \"id\": \"Pet\" } } }");
+
+		assertNull(new DefinitionsReader().read(spec));
+	}
+
+	public void testLeavesReferencesToOtherFilesToSwaggerParser() throws IOException {
+		File spec = write("swagger.yaml", "swagger: '2.0'\ninfo:\n  title: Store\n  version: '1'\npaths: {}\n"
+				+ "definitions:\n  Pet:\n    properties:\n      id:\n        type: integer\n"
+				+ "  Order:\n    properties:\n      pet:\n        $ref: 'models/pet.yaml#/Pet'\n");
+
+		assertNull(new DefinitionsReader().read(spec));
+	}
+
+	private static void assertSameDefinitions(File spec) throws IOException {
+		Swagger expected = new SwaggerParser().read(spec.getAbsolutePath());
+		Swagger actual = new DefinitionsReader().read(spec);
+
+		assertNotNull(actual);
+		assertEquals(expected.getSwagger(), actual.getSwagger());
+		assertEquals(Json.pretty(expected.getInfo()), Json.pretty(actual.getInfo()));
+		assertEquals(expected.getDefinitions().keySet(), actual.getDefinitions().keySet());
+		assertEquals(Json.pretty(expected.getDefinitions()), Json.pretty(actual.getDefinitions()));
+	}
+
+	private File write(String path, String content) throws IOException {
+		File file = new File(root, path);
+		FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8.name());
+		return file;
+	}
+}
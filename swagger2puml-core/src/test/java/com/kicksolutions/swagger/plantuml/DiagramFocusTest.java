@@ -0,0 +1,126 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import io.swagger.models.Operation;
+import io.swagger.models.Swagger;
+import junit.framework.TestCase;
+
+/**
+ * 
+ * @author MSANTOSH
+ *
+ */
+public class DiagramFocusTest extends TestCase {
+
+	private static final List<String> MODELS = Arrays.asList("Entity", "Pet", "PetPage", "Category", "Tag",
+			"Status", "Order", "User", "Error");
+
+	private Swagger swagger;
+
+	@Override
+	protected void setUp() throws Exception {
+		swagger = PlantUMLStreamEmitterTest.readSpec("store.yaml");
+	}
+
+	public void testSingleStarMatchesWithinASegment() {
+		Pattern pattern = DiagramFocus.toPattern("/pets/*");
+
+		assertTrue(pattern.matcher("/pets/{petId}").matches());
+		assertTrue(pattern.matcher("/pets/").matches());
+		assertFalse(pattern.matcher("/pets").matches());
+		assertFalse(pattern.matcher("/pets/{petId}/photos").matches());
+	}
+
+	public void testDoubleStarMatchesAcrossSegments() {
+		Pattern pattern = DiagramFocus.toPattern("/store/**");
+
+		assertTrue(pattern.matcher("/store").matches());
+		assertTrue(pattern.matcher("/store/orders").matches());
+		assertTrue(pattern.matcher("/store/orders/{orderId}").matches());
+		assertFalse(pattern.matcher("/storefront").matches());
+
+		Pattern inner = DiagramFocus.toPattern("/users/**/orders");
+		assertTrue(inner.matcher("/users/orders").matches());
+		assertTrue(inner.matcher("/users/{name}/archive/orders").matches());
+		assertFalse(inner.matcher("/users/{name}/orders/1").matches());
+
+		assertTrue(DiagramFocus.toPattern("**").matcher("/any/path").matches());
+	}
+
+	public void testQuestionMarkAndLiterals() {
+		Pattern pattern = DiagramFocus.toPattern("/v1.?/pets");
+
+		assertTrue(pattern.matcher("/v1.2/pets").matches());
+		assertFalse(pattern.matcher("/v1.22/pets").matches());
+		assertFalse(pattern.matcher("/v1x2/pets").matches());
+		assertFalse(pattern.matcher("/v1./pets").matches());
+		assertTrue(DiagramFocus.toPattern("/pets/{petId}").matcher("/pets/{petId}").matches());
+	}
+
+	public void testTagKeepsEverythingItsOperationsReach() {
+		DiagramFocus.Selection selection = new DiagramFocus().addTags("STORE").select(swagger);
+
+		assertEquals(Arrays.asList("Entity", "Pet", "Category", "Tag", "Status", "Order", "User"),
+				getModels(selection));
+		assertTrue(selection.containsOperation(swagger.getPath("/store/orders").getPost()));
+		assertTrue(selection.containsOperation(swagger.getPath("/store/inventory").getGet()));
+		assertFalse(selection.containsOperation(swagger.getPath("/pets").getGet()));
+	}
+
+	public void testDepthCountsRefsFromTheOperations() {
+		DiagramFocus focus = new DiagramFocus().addTags("store");
+
+		focus.setDepth(1);
+		assertEquals(Arrays.asList("Order"), getModels(focus.select(swagger)));
+
+		focus.setDepth(2);
+		assertEquals(Arrays.asList("Entity", "Pet", "Order", "User"), getModels(focus.select(swagger)));
+	}
+
+	public void testDepthZeroKeepsOnlyTheFocusedModels() {
+		DiagramFocus focus = new DiagramFocus().addModels("Pet");
+		focus.setDepth(0);
+
+		DiagramFocus.Selection selection = focus.select(swagger);
+
+		assertEquals(Arrays.asList("Pet"), getModels(selection));
+		assertTrue(selection.containsOperation(swagger.getPath("/pets").getGet()));
+		assertTrue(selection.containsOperation(swagger.getPath("/pets").getPost()));
+		assertFalse(selection.containsOperation(swagger.getPath("/pets/{petId}").getDelete()));
+	}
+
+	public void testFocusedModelsAreCountedFromZero() {
+		DiagramFocus focus = new DiagramFocus().addModels("Category");
+		focus.setDepth(1);
+
+		assertEquals(Arrays.asList("Category"), getModels(focus.select(swagger)));
+	}
+
+	public void testPathFocus() {
+		DiagramFocus.Selection selection = new DiagramFocus().addPaths("/pets/*").select(swagger);
+
+		assertEquals(Arrays.asList("Error"), getModels(selection));
+		Operation deletePet = swagger.getPath("/pets/{petId}").getDelete();
+		assertTrue(selection.containsOperation(deletePet));
+		assertFalse(selection.containsOperation(swagger.getPath("/pets").getGet()));
+	}
+
+	public void testEmpty() {
+		assertTrue(new DiagramFocus().addModels(" , ").addTags(null).addPaths("").isEmpty());
+		assertFalse(new DiagramFocus().addPaths("/pets").isEmpty());
+	}
+
+	private static List<String> getModels(DiagramFocus.Selection selection) {
+		List<String> models = new ArrayList<String>();
+		for (String model : MODELS) {
+			if (selection.containsModel(model)) {
+				models.add(model);
+			}
+		}
+		return models;
+	}
+}
@@ -0,0 +1,202 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.kicksolutions.swagger.plantuml.vo.ClassDiagram;
+import com.kicksolutions.swagger.plantuml.vo.ClassMembers;
+import com.kicksolutions.swagger.plantuml.vo.ClassRelation;
+import com.kicksolutions.swagger.plantuml.vo.DiagramPartition;
+import com.kicksolutions.swagger.plantuml.vo.InterfaceDiagram;
+import com.kicksolutions.swagger.plantuml.vo.MethodDefinitions;
+import com.kicksolutions.swagger.plantuml.vo.PartitionRelation;
+import com.kicksolutions.swagger.plantuml.vo.RelationKind;
+
+import junit.framework.TestCase;
+
+/**
+ * Pet, Category and Tag hang off PetApi, Order and User off StoreApi, and
+ * Audit is on its own.
+ * 
+ * @author MSANTOSH
+ *
+ */
+public class DiagramPartitionerTest extends TestCase {
+
+	private List<ClassDiagram> classDiagrams;
+	private List<InterfaceDiagram> interfaceDiagrams;
+	private List<ClassRelation> relations;
+
+	@Override
+	protected void setUp() {
+		classDiagrams = Arrays.asList(model("Pet"), model("Category"), model("Tag"), model("Order"), model("User"),
+				model("Audit"));
+		interfaceDiagrams = Arrays.asList(api("PetApi"), api("StoreApi"));
+		relations = Arrays.asList(relation("Pet", "Category"), relation("Pet", "Tag"), relation("Tag", "Label"),
+				relation("Order", "User"), relation("PetApi", "Pet"), relation("StoreApi", "Order"));
+	}
+
+	public void testComponentPacksConnectedNodesTogether() {
+		DiagramPartitioner partitioner = new DiagramPartitioner(PartitionMode.COMPONENT, 5);
+		List<DiagramPartition> partitions = partitioner.partition(classDiagrams, interfaceDiagrams, relations);
+
+		assertEquals(2, partitions.size());
+		assertPartition(partitions.get(0), "Pet", Arrays.asList("Pet", "Category", "Tag"), Arrays.asList("PetApi"),
+				relations.get(0), relations.get(1), relations.get(2), relations.get(4));
+		assertPartition(partitions.get(1), "Order", Arrays.asList("Order", "User", "Audit"), Arrays.asList("StoreApi"),
+				relations.get(3), relations.get(5));
+		assertTrue(partitioner.link(partitions).isEmpty());
+		assertCoversEveryNodeOnce(partitions);
+	}
+
+	public void testComponentSplitsComponentsLargerThanTheBudget() {
+		DiagramPartitioner partitioner = new DiagramPartitioner(PartitionMode.COMPONENT, 3);
+		List<DiagramPartition> partitions = partitioner.partition(classDiagrams, interfaceDiagrams, relations);
+
+		assertEquals(4, partitions.size());
+		assertEquals(3, getNodes(partitions.get(0)).size());
+		Set<String> petComponent = getNodes(partitions.get(0));
+		petComponent.addAll(getNodes(partitions.get(1)));
+		assertEquals(new HashSet<String>(Arrays.asList("Pet", "Category", "Tag", "PetApi")), petComponent);
+		assertEquals(new HashSet<String>(Arrays.asList("Order", "User", "StoreApi")), getNodes(partitions.get(2)));
+		assertEquals(Collections.singleton("Audit"), getNodes(partitions.get(3)));
+		assertWithinBudget(partitions, 3);
+		assertCoversEveryNodeOnce(partitions);
+		assertLinksCountEveryCrossingRelation(partitioner, partitions);
+	}
+
+	public void testSizeCutsRunsOfMaxNodes() {
+		DiagramPartitioner partitioner = new DiagramPartitioner(PartitionMode.SIZE, 3);
+		List<DiagramPartition> partitions = partitioner.partition(classDiagrams, interfaceDiagrams, relations);
+
+		assertEquals(3, partitions.size());
+		assertEquals(3, getNodes(partitions.get(0)).size());
+		assertEquals(3, getNodes(partitions.get(1)).size());
+		assertEquals(2, getNodes(partitions.get(2)).size());
+		assertCoversEveryNodeOnce(partitions);
+		assertLinksCountEveryCrossingRelation(partitioner, partitions);
+	}
+
+	public void testTagGivesEveryInterfaceThePartOfTheDiagramItReaches() {
+		List<ClassRelation> sharedPet = new ArrayList<ClassRelation>(relations);
+		sharedPet.add(relation("StoreApi", "Pet"));
+
+		DiagramPartitioner partitioner = new DiagramPartitioner(PartitionMode.TAG, 10);
+		List<DiagramPartition> partitions = partitioner.partition(classDiagrams, interfaceDiagrams, sharedPet);
+
+		assertEquals(3, partitions.size());
+		assertPartition(partitions.get(0), "PetApi", Arrays.asList("Pet", "Category", "Tag"), Arrays.asList("PetApi"),
+				sharedPet.get(0), sharedPet.get(1), sharedPet.get(2), sharedPet.get(4));
+		assertPartition(partitions.get(1), "StoreApi", Arrays.asList("Pet", "Category", "Tag", "Order", "User"),
+				Arrays.asList("StoreApi"), sharedPet.get(0), sharedPet.get(1), sharedPet.get(2), sharedPet.get(3),
+				sharedPet.get(5), sharedPet.get(6));
+		assertPartition(partitions.get(2), "Audit", Arrays.asList("Audit"), Collections.<String>emptyList());
+	}
+
+	public void testTagLimitsReachToMaxNodes() {
+		DiagramPartitioner partitioner = new DiagramPartitioner(PartitionMode.TAG, 2);
+		List<DiagramPartition> partitions = partitioner.partition(classDiagrams, interfaceDiagrams, relations);
+
+		assertEquals(new HashSet<String>(Arrays.asList("PetApi", "Pet")), getNodes(partitions.get(0)));
+		assertEquals(new HashSet<String>(Arrays.asList("StoreApi", "Order")), getNodes(partitions.get(1)));
+		assertEquals(4, partitions.size());
+		assertWithinBudget(partitions, 2);
+		assertCoversEveryNodeOnce(partitions);
+	}
+
+	public void testRejectsEmptyBudget() {
+		try {
+			new DiagramPartitioner(PartitionMode.SIZE, 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	private static void assertPartition(DiagramPartition partition, String name, List<String> classes,
+			List<String> interfaces, ClassRelation... partitionRelations) {
+		assertEquals(name, partition.getName());
+
+		List<String> classNames = new ArrayList<String>();
+		for (ClassDiagram classDiagram : partition.getClassDiagrams()) {
+			classNames.add(classDiagram.getClassName());
+		}
+		List<String> interfaceNames = new ArrayList<String>();
+		for (InterfaceDiagram interfaceDiagram : partition.getInterfaceDiagrams()) {
+			interfaceNames.add(interfaceDiagram.getInterfaceName());
+		}
+
+		assertEquals(classes, classNames);
+		assertEquals(interfaces, interfaceNames);
+		assertEquals(Arrays.asList(partitionRelations), partition.getEntityRelations());
+	}
+
+	private void assertCoversEveryNodeOnce(List<DiagramPartition> partitions) {
+		List<String> nodes = new ArrayList<String>();
+		for (DiagramPartition partition : partitions) {
+			nodes.addAll(getNodes(partition));
+		}
+
+		assertEquals(classDiagrams.size() + interfaceDiagrams.size(), nodes.size());
+		assertEquals(nodes.size(), new HashSet<String>(nodes).size());
+	}
+
+	private static void assertWithinBudget(List<DiagramPartition> partitions, int maxNodes) {
+		for (DiagramPartition partition : partitions) {
+			assertTrue(partition.toString(), partition.getClassCount() + partition.getInterfaceCount() <= maxNodes);
+		}
+	}
+
+	/**
+	 * Every relation of the spec is either held by one partition or counted on
+	 * the index.
+	 */
+	private void assertLinksCountEveryCrossingRelation(DiagramPartitioner partitioner,
+			List<DiagramPartition> partitions) {
+		int held = 0;
+		for (DiagramPartition partition : partitions) {
+			held += partition.getEntityRelations().size();
+
+			for (ClassRelation relation : partition.getEntityRelations()) {
+				assertTrue(getNodes(partition).contains(relation.getSourceClass()));
+			}
+		}
+
+		int linked = 0;
+		for (PartitionRelation link : partitioner.link(partitions)) {
+			assertFalse(link.getSourcePartition().equals(link.getTargetPartition()));
+			linked += link.getRelations();
+		}
+
+		assertEquals(relations.size(), held + linked);
+	}
+
+	private static Set<String> getNodes(DiagramPartition partition) {
+		Set<String> nodes = new HashSet<String>();
+		for (ClassDiagram classDiagram : partition.getClassDiagrams()) {
+			nodes.add(classDiagram.getClassName());
+		}
+		for (InterfaceDiagram interfaceDiagram : partition.getInterfaceDiagrams()) {
+			nodes.add(interfaceDiagram.getInterfaceName());
+		}
+		return nodes;
+	}
+
+	static ClassDiagram model(String name) {
+		return new ClassDiagram(name, null, Collections.<ClassMembers>emptyList(),
+				Collections.<ClassRelation>emptyList(), true, null);
+	}
+
+	static InterfaceDiagram api(String name) {
+		return new InterfaceDiagram(name, Collections.<MethodDefinitions>emptyList(),
+				Collections.<ClassRelation>emptyList(), null);
+	}
+
+	static ClassRelation relation(String source, String target) {
+		return new ClassRelation(source, target, RelationKind.COMPOSITION, null);
+	}
+}
@@ -0,0 +1,121 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import io.swagger.models.ComposedModel;
+import io.swagger.models.Model;
+import io.swagger.models.properties.BaseIntegerProperty;
+import io.swagger.models.properties.BooleanProperty;
+import io.swagger.models.properties.DateTimeProperty;
+import io.swagger.models.properties.Property;
+import io.swagger.models.properties.StringProperty;
+import io.swagger.parser.SwaggerParser;
+import junit.framework.TestCase;
+
+/**
+ * Pet composes Entity and Named, Dog composes Pet, and A and B compose each
+ * other.
+ *
+ * @author MSANTOSH
+ *
+ */
+public class ModelFlattenerTest extends TestCase {
+
+	private static final String SPEC = "swagger: '2.0'\n" + "info:\n  title: Pets\n  version: '1'\n" + "paths: {}\n"
+			+ "definitions:\n"
+			+ "  Entity:\n    properties:\n      id:\n        type: integer\n"
+			+ "      created:\n        type: string\n        format: date-time\n"
+			+ "  Named:\n    properties:\n      name:\n        type: string\n      id:\n        type: string\n"
+			+ "  Pet:\n    allOf:\n      - $ref: '#/definitions/Entity'\n      - $ref: '#/definitions/Named'\n"
+			+ "      - properties:\n          tag:\n            type: string\n          created:\n"
+			+ "            type: string\n"
+			+ "  Dog:\n    allOf:\n      - $ref: '#/definitions/Pet'\n"
+			+ "      - properties:\n          bark:\n            type: boolean\n          name:\n"
+			+ "            type: integer\n"
+			+ "  A:\n    allOf:\n      - $ref: '#/definitions/B'\n"
+			+ "      - properties:\n          a:\n            type: string\n"
+			+ "  B:\n    allOf:\n      - $ref: '#/definitions/A'\n"
+			+ "      - properties:\n          b:\n            type: string\n";
+
+	private Map<String, Model> models;
+
+	@Override
+	protected void setUp() {
+		models = new SwaggerParser().parse(SPEC).getDefinitions();
+	}
+
+	public void testOwnPropertiesComeBeforeThoseOfTheParentsInAllOfOrder() {
+		ModelFlattener flattener = flatten();
+
+		assertEquals(Arrays.asList("tag", "created", "id", "name"), names(getProperties(flattener, "Pet")));
+		assertEquals(Arrays.asList("bark", "name", "tag", "created", "id"), names(getProperties(flattener, "Dog")));
+	}
+
+	public void testNearestDefinitionWins() {
+		ModelFlattener flattener = flatten();
+		Map<String, Property> pet = getProperties(flattener, "Pet");
+		Map<String, Property> dog = getProperties(flattener, "Dog");
+
+		assertTrue(pet.get("created") instanceof StringProperty);
+		assertTrue(models.get("Entity").getProperties().get("created") instanceof DateTimeProperty);
+		assertTrue(pet.get("id") instanceof BaseIntegerProperty);
+		assertTrue(dog.get("name") instanceof BaseIntegerProperty);
+		assertTrue(dog.get("bark") instanceof BooleanProperty);
+		assertSame(pet.get("created"), dog.get("created"));
+	}
+
+	public void testCyclicAllOfKeepsTheMembersOfBothSides() {
+		ModelFlattener flattener = flatten();
+
+		assertEquals(Arrays.asList("a", "b"), names(getProperties(flattener, "A")));
+		assertEquals(Arrays.asList("b", "a"), names(getProperties(flattener, "B")));
+	}
+
+	public void testCyclicAllOfFlattenedOnAMiss() {
+		ModelFlattener flattener = new ModelFlattener(models);
+
+		assertEquals(Arrays.asList("b", "a"), names(getProperties(flattener, "B")));
+		assertEquals(Arrays.asList("a", "b"), names(getProperties(flattener, "A")));
+	}
+
+	public void testPropertiesAreServedFromTheCache() {
+		ModelFlattener flattener = new ModelFlattener(models);
+		Map<String, Property> dog = getProperties(flattener, "Dog");
+
+		assertSame(dog, getProperties(flattener, "Dog"));
+		assertEquals(names(dog), names(getProperties(flatten(), "Dog")));
+		try {
+			dog.clear();
+			fail("Flattened properties must not be modifiable");
+		} catch (UnsupportedOperationException e) {
+			assertEquals(5, dog.size());
+		}
+	}
+
+	public void testModelsOutsideTheDefinitionsAreMergedWithTheCache() {
+		ModelFlattener flattener = flatten();
+		ComposedModel inline = (ComposedModel) new SwaggerParser()
+				.parse(SPEC.replace("  Dog:\n", "  Inline:\n")).getDefinitions().get("Inline");
+
+		assertEquals(Arrays.asList("bark", "name", "tag", "created", "id"),
+				names(flattener.getProperties("Dog", inline)));
+		assertNotSame(getProperties(flattener, "Dog"), flattener.getProperties("Dog", inline));
+	}
+
+	private ModelFlattener flatten() {
+		ModelFlattener flattener = new ModelFlattener(models);
+		flattener.flatten(new ArrayList<Map.Entry<String, Model>>(models.entrySet()));
+		return flattener;
+	}
+
+	private Map<String, Property> getProperties(ModelFlattener flattener, String name) {
+		return flattener.getProperties(name, (ComposedModel) models.get(name));
+	}
+
+	private static List<String> names(Map<String, Property> properties) {
+		return new ArrayList<String>(properties.keySet());
+	}
+}
@@ -0,0 +1,93 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import io.swagger.models.Operation;
+import io.swagger.models.Response;
+import io.swagger.models.properties.ArrayProperty;
+import io.swagger.models.properties.ObjectProperty;
+import io.swagger.models.properties.Property;
+import io.swagger.models.properties.RefProperty;
+import io.swagger.models.properties.StringProperty;
+import junit.framework.TestCase;
+
+/**
+ * 
+ * @author MSANTOSH
+ *
+ */
+public class OperationResponsesTest extends TestCase {
+
+	public void testStatus() {
+		assertEquals(200, OperationResponses.getStatus("200"));
+		assertEquals(200, OperationResponses.getStatus("2XX"));
+		assertEquals(400, OperationResponses.getStatus("4xx"));
+		assertEquals(-1, OperationResponses.getStatus("default"));
+		assertEquals(-1, OperationResponses.getStatus(""));
+		assertEquals(-1, OperationResponses.getStatus("20a"));
+		assertEquals(-1, OperationResponses.getStatus("X00"));
+		assertEquals(-1, OperationResponses.getStatus("1234567890"));
+	}
+
+	public void testSuccessAndErrorClasses() {
+		Operation operation = new Operation().operationId("findPets")
+				.response(200, response(new RefProperty("#/definitions/Pet")))
+				.response(404, response(new RefProperty("#/definitions/Error")))
+				.response(201, response(new ArrayProperty(new RefProperty("#/definitions/Tag"))))
+				.response(500, response(new RefProperty("#/definitions/Error")))
+				.response(302, response(new RefProperty("#/definitions/Redirect")));
+		operation.defaultResponse(response(new RefProperty("#/definitions/Problem")));
+
+		OperationResponses responses = new OperationResponses(operation, new NameCache(16));
+
+		assertEquals(Arrays.asList("Pet", "Tag"), responses.getSuccessClasses());
+		assertEquals("Tag[]", responses.getReturnType());
+		assertEquals("Error,Redirect,Problem", responses.getErrorClassName());
+	}
+
+	public void testRangesAreClassifiedByTheirFirstDigit() {
+		Operation operation = new Operation().operationId("listPets");
+		operation.addResponse("2XX", response(new RefProperty("#/definitions/PetPage")));
+		operation.addResponse("4XX", response(new RefProperty("#/definitions/Error")));
+		operation.addResponse("unknown", response(new RefProperty("#/definitions/Ignored")));
+
+		OperationResponses responses = new OperationResponses(operation, new NameCache(16));
+
+		assertEquals(Collections.singletonList("PetPage"), responses.getSuccessClasses());
+		assertEquals("PetPage", responses.getReturnType());
+		assertEquals("Error", responses.getErrorClassName());
+	}
+
+	public void testResponsesWithoutModels() {
+		Operation operation = new Operation().operationId("getInventory")
+				.response(200, response(new StringProperty()))
+				.response(400, response(new ArrayProperty(new RefProperty("#/definitions/Error"))));
+
+		OperationResponses responses = new OperationResponses(operation, new NameCache(16));
+
+		assertTrue(responses.getSuccessClasses().isEmpty());
+		assertEquals("void", responses.getReturnType());
+		assertEquals("", responses.getErrorClassName());
+	}
+
+	public void testInlineObjectResponseIsNamedAfterTheOperation() {
+		Operation operation = new Operation().operationId("getInventory")
+				.response(200, response(new ObjectProperty()));
+
+		assertEquals("GetInventoryGenerated",
+				new OperationResponses(operation, new NameCache(16)).getReturnType());
+	}
+
+	public void testNoResponses() {
+		OperationResponses responses = new OperationResponses(new Operation(), new NameCache(16));
+
+		assertTrue(responses.getSuccessClasses().isEmpty());
+		assertEquals("void", responses.getReturnType());
+		assertEquals("", responses.getErrorClassName());
+	}
+
+	private static Response response(Property schema) {
+		return new Response().description("response").schema(schema);
+	}
+}
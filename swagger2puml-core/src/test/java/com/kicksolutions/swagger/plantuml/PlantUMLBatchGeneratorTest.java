@@ -0,0 +1,76 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+
+import junit.framework.TestCase;
+
+/**
+ * 
+ * @author MSANTOSH
+ *
+ */
+public class PlantUMLBatchGeneratorTest extends TestCase {
+
+	private File root;
+
+	@Override
+	protected void setUp() throws IOException {
+		root = Files.createTempDirectory("swagger2puml-batch").toFile();
+	}
+
+	@Override
+	protected void tearDown() throws IOException {
+		FileUtils.deleteDirectory(root);
+	}
+
+	public void testAnyDirectoriesGlobMatchesTopLevelSpecs() throws IOException {
+		touch("petstore.yaml");
+		touch("store/order.yaml");
+		touch("store/v2/inventory.yaml");
+		touch("store/notes.txt");
+
+		Map<String, File> specs = PlantUMLBatchGenerator.resolveSpecs(root.getPath() + "/**/*.yaml");
+
+		assertEquals(Arrays.asList("petstore", "store/order", "store/v2/inventory"),
+				new ArrayList<String>(specs.keySet()));
+	}
+
+	public void testAnyDirectoriesInTheMiddleOfAGlob() throws IOException {
+		touch("store/order.yaml");
+		touch("store/v2/inventory.yaml");
+		touch("user.yaml");
+
+		Map<String, File> specs = PlantUMLBatchGenerator.resolveSpecs(root.getPath() + "/store/**/*.yaml");
+
+		assertEquals(Arrays.asList("order", "v2/inventory"), new ArrayList<String>(specs.keySet()));
+	}
+
+	public void testCollidingOutputNamesStayUnique() throws IOException {
+		File aYaml = touch("a_yaml.json");
+		File aJson = touch("a.json");
+		File a = touch("a.yaml");
+		File manifest = new File(root, "specs.txt");
+		FileUtils.writeLines(manifest, StandardCharsets.UTF_8.name(), Arrays.asList("a_yaml.json", "a.json", "a.yaml"));
+
+		Map<String, File> specs = PlantUMLBatchGenerator.resolveSpecs(manifest.getPath());
+
+		assertEquals(3, specs.size());
+		assertEquals(aYaml.getCanonicalFile(), specs.get("a_yaml").getCanonicalFile());
+		assertEquals(aJson.getCanonicalFile(), specs.get("a").getCanonicalFile());
+		assertEquals(a.getCanonicalFile(), specs.get("a_yaml2").getCanonicalFile());
+	}
+
+	private File touch(String path) throws IOException {
+		File file = new File(root, path);
+		FileUtils.writeStringToFile(file, "swagger: '2.0'", StandardCharsets.UTF_8.name());
+		return file;
+	}
+}
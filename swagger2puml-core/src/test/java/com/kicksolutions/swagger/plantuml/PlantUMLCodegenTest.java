@@ -0,0 +1,96 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+
+import junit.framework.TestCase;
+
+/**
+ * 
+ * @author MSANTOSH
+ *
+ */
+public class PlantUMLCodegenTest extends TestCase {
+
+	private File targetLocation;
+
+	@Override
+	protected void setUp() throws IOException {
+		targetLocation = Files.createTempDirectory("swagger2puml-codegen").toFile();
+	}
+
+	@Override
+	protected void tearDown() throws IOException {
+		FileUtils.deleteDirectory(targetLocation);
+	}
+
+	public void testPartitionedSourcesAreTheFilesWritten() throws Exception {
+		for (PartitionMode mode : PartitionMode.values()) {
+			for (boolean streamingEmitter : new boolean[] { false, true }) {
+				PlantUMLCodegen codegen = new PlantUMLCodegen(PlantUMLStreamEmitterTest.readSpec("store.yaml"),
+						targetLocation, false, true);
+				codegen.setStreamingEmitter(streamingEmitter);
+				codegen.setPartitioning(mode, 3);
+
+				Map<File, String> pumlSources = codegen.generatePartitionedPuml();
+
+				assertEquals(new File(targetLocation, "swagger.puml"), pumlSources.keySet().iterator().next());
+				assertTrue(pumlSources.size() > 2);
+				for (Map.Entry<File, String> pumlSource : pumlSources.entrySet()) {
+					assertEquals(FileUtils.readFileToString(pumlSource.getKey(), Charset.defaultCharset()),
+							pumlSource.getValue());
+					assertTrue(pumlSource.getValue().startsWith("@startuml"));
+				}
+				FileUtils.cleanDirectory(targetLocation);
+			}
+		}
+	}
+
+	public void testIndexLinksToSvgsOnlyWhenRendered() throws Exception {
+		PlantUMLCodegen codegen = new PlantUMLCodegen(PlantUMLStreamEmitterTest.readSpec("store.yaml"),
+				targetLocation, false, true);
+		codegen.setPartitioning(PartitionMode.TAG, 3);
+
+		String index = codegen.generatePartitionedPuml().values().iterator().next();
+		assertTrue(index.contains("as P1 {"));
+		assertFalse(index.contains("[["));
+
+		codegen.setSvgLinks(true);
+		index = codegen.generatePartitionedPuml().values().iterator().next();
+		assertTrue(index.contains("as P1 [[swagger-1-PetApi.svg]] {"));
+	}
+
+	public void testRelationGraphOfTheSpec() throws Exception {
+		PlantUMLCodegen codegen = new PlantUMLCodegen(PlantUMLStreamEmitterTest.readSpec("store.yaml"),
+				targetLocation, false, true);
+
+		RelationGraph graph = codegen.buildRelationGraph();
+
+		assertEquals(12, graph.getNodeCount());
+		assertEquals(13, graph.getRelationCount());
+		assertEquals(13, graph.getEdgeCount());
+		assertTrue(graph.isInterface(graph.getNode("PetApi")));
+		assertFalse(graph.isInterface(graph.getNode("Status")));
+		assertEquals(-1, graph.getNode("Label"));
+
+		Set<Set<String>> cycles = new HashSet<Set<String>>();
+		for (int[] cycle : graph.getCycles()) {
+			Set<String> names = new HashSet<String>();
+			for (int node : cycle) {
+				names.add(graph.getName(node));
+			}
+			cycles.add(names);
+		}
+		assertEquals(new HashSet<Set<String>>(Arrays.asList(new HashSet<String>(Arrays.asList("Category")),
+				new HashSet<String>(Arrays.asList("Order", "User")))), cycles);
+		assertEquals(0, targetLocation.list().length);
+	}
+}
@@ -0,0 +1,159 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+
+import io.swagger.models.Swagger;
+import junit.framework.TestCase;
+
+/**
+ *
+ * @author MSANTOSH
+ *
+ */
+public class PlantUMLServerTest extends TestCase {
+
+	private final CountDownLatch started = new CountDownLatch(1);
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	private PlantUMLServer server;
+	private byte[] spec;
+
+	@Override
+	protected void setUp() throws Exception {
+		spec = FileUtils.readFileToByteArray(new File(getClass().getResource("/store.yaml").toURI()));
+	}
+
+	@Override
+	protected void tearDown() {
+		release.countDown();
+		if (server != null) {
+			server.stop(0);
+		}
+	}
+
+	public void testConvertsPostedSpec() throws IOException {
+		start(new PlantUMLGenerator(), 1);
+
+		HttpURLConnection connection = post("/puml", spec);
+		assertEquals(200, connection.getResponseCode());
+		assertTrue(connection.getContentType().startsWith("text/plain"));
+		assertTrue(read(connection).startsWith("@startuml"));
+	}
+
+	public void testRejectsOtherMethods() throws IOException {
+		start(new PlantUMLGenerator(), 1);
+
+		assertEquals(405, open("/puml").getResponseCode());
+	}
+
+	public void testRejectsSpecsLargerThanAllowed() throws IOException {
+		start(new PlantUMLGenerator(), 1);
+		server.setMaxSpecBytes(spec.length - 1);
+
+		assertEquals(413, post("/puml", spec).getResponseCode());
+		assertEquals(400, post("/puml", "not a spec".getBytes(StandardCharsets.UTF_8)).getResponseCode());
+	}
+
+	public void testRejectsRequestsBeyondTheLimitWhileHealthStaysResponsive() throws Exception {
+		start(new BlockingGenerator(), 1);
+		ExecutorService client = Executors.newSingleThreadExecutor();
+
+		try {
+			Future<Integer> blocked = client.submit(new Callable<Integer>() {
+				@Override
+				public Integer call() throws IOException {
+					return post("/puml", spec).getResponseCode();
+				}
+			});
+			assertTrue(started.await(30, TimeUnit.SECONDS));
+
+			HttpURLConnection rejected = post("/svg", spec);
+			rejected.setReadTimeout(5000);
+			assertEquals(503, rejected.getResponseCode());
+			assertEquals("1", rejected.getHeaderField("Retry-After"));
+
+			for (int i = 0; i < 5; i++) {
+				HttpURLConnection health = open("/health");
+				health.setReadTimeout(5000);
+				assertEquals(200, health.getResponseCode());
+				assertEquals("{\"status\":\"UP\",\"activeRequests\":1,\"maxConcurrentRequests\":1}", read(health));
+			}
+
+			release.countDown();
+			assertEquals(200, blocked.get(30, TimeUnit.SECONDS).intValue());
+		} finally {
+			client.shutdownNow();
+		}
+	}
+
+	private void start(PlantUMLGenerator generator, int maxConcurrentRequests) throws IOException {
+		server = new PlantUMLServer(generator, maxConcurrentRequests);
+		server.start("127.0.0.1", 0);
+	}
+
+	private HttpURLConnection open(String path) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + server.getPort() + path)
+				.openConnection();
+		connection.setConnectTimeout(5000);
+		connection.setReadTimeout(60000);
+		return connection;
+	}
+
+	private HttpURLConnection post(String path, byte[] body) throws IOException {
+		HttpURLConnection connection = open(path);
+		connection.setRequestMethod("POST");
+		connection.setDoOutput(true);
+		connection.setFixedLengthStreamingMode(body.length);
+
+		OutputStream outputStream = connection.getOutputStream();
+		try {
+			outputStream.write(body);
+		} finally {
+			outputStream.close();
+		}
+		return connection;
+	}
+
+	private static String read(HttpURLConnection connection) throws IOException {
+		InputStream inputStream = connection.getInputStream();
+		try {
+			return IOUtils.toString(inputStream, StandardCharsets.UTF_8.name());
+		} finally {
+			inputStream.close();
+		}
+	}
+
+	/**
+	 * Holds every conversion until released.
+	 */
+	private class BlockingGenerator extends PlantUMLGenerator {
+
+		@Override
+		public void generatePuml(Swagger swagger, Writer writer, boolean generateDefinitionModelOnly,
+				boolean includeCardinality) throws IOException {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			super.generatePuml(swagger, writer, generateDefinitionModelOnly, includeCardinality);
+		}
+	}
+}
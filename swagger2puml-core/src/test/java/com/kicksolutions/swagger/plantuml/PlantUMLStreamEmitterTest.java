@@ -0,0 +1,59 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.io.File;
+import java.io.StringWriter;
+
+import io.swagger.models.Swagger;
+import io.swagger.parser.SwaggerParser;
+import junit.framework.TestCase;
+
+/**
+ * The streaming emitter must write the same bytes as puml.mustache.
+ * 
+ * @author MSANTOSH
+ *
+ */
+public class PlantUMLStreamEmitterTest extends TestCase {
+
+	public void testSameOutputAsTemplate() throws Exception {
+		assertSameOutput(false, true);
+	}
+
+	public void testSameOutputAsTemplateWithoutCardinality() throws Exception {
+		assertSameOutput(false, false);
+	}
+
+	public void testSameOutputAsTemplateForDefinitionsOnly() throws Exception {
+		assertSameOutput(true, true);
+	}
+
+	public void testEscapesLikeTemplate() throws Exception {
+		String puml = generate(false, true, true);
+
+		assertTrue(puml, puml.contains("Store &amp; &lt;Warehouse&gt;"));
+		assertTrue(puml, puml.startsWith("@startuml\r\n"));
+		assertTrue(puml, puml.endsWith("@enduml"));
+	}
+
+	private void assertSameOutput(boolean generateDefinitionModelOnly, boolean includeCardinality)
+			throws Exception {
+		assertEquals(generate(generateDefinitionModelOnly, includeCardinality, false),
+				generate(generateDefinitionModelOnly, includeCardinality, true));
+	}
+
+	static String generate(boolean generateDefinitionModelOnly, boolean includeCardinality,
+			boolean streamingEmitter) throws Exception {
+		PlantUMLCodegen codegen = new PlantUMLCodegen(readSpec("store.yaml"), null, generateDefinitionModelOnly,
+				includeCardinality);
+		codegen.setStreamingEmitter(streamingEmitter);
+
+		StringWriter writer = new StringWriter();
+		codegen.generatePuml(writer);
+		return writer.toString();
+	}
+
+	static Swagger readSpec(String name) throws Exception {
+		return new SwaggerParser().read(new File(PlantUMLStreamEmitterTest.class.getResource("/" + name).toURI())
+				.getPath());
+	}
+}
@@ -0,0 +1,162 @@
+package com.kicksolutions.swagger.plantuml;
+
+import static com.kicksolutions.swagger.plantuml.DiagramPartitionerTest.api;
+import static com.kicksolutions.swagger.plantuml.DiagramPartitionerTest.model;
+import static com.kicksolutions.swagger.plantuml.DiagramPartitionerTest.relation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.kicksolutions.swagger.plantuml.vo.ClassDiagram;
+import com.kicksolutions.swagger.plantuml.vo.ClassRelation;
+import com.kicksolutions.swagger.plantuml.vo.InterfaceDiagram;
+
+import junit.framework.TestCase;
+
+/**
+ * A, B and C relate in a cycle, C to D, D to itself and A to the undefined
+ * Ext. Api relates to A and E is on its own.
+ *
+ * @author MSANTOSH
+ *
+ */
+public class RelationGraphTest extends TestCase {
+
+	private static final int A = 0, B = 1, C = 2, D = 3, E = 4, API = 5;
+
+	private RelationGraph graph;
+
+	@Override
+	protected void setUp() {
+		graph = new RelationGraph(Arrays.asList(model("A"), model("B"), model("C"), model("D"), model("E")),
+				Arrays.asList(api("Api")),
+				Arrays.asList(relation("A", "B"), relation("B", "C"), relation("C", "A"), relation("C", "D"),
+						relation("D", "D"), relation("A", "Ext"), relation("Api", "A")));
+	}
+
+	public void testNodesAreNumberedModelsFirst() {
+		assertEquals(6, graph.getNodeCount());
+		assertEquals(7, graph.getRelationCount());
+		assertEquals(6, graph.getEdgeCount());
+		assertEquals(C, graph.getNode("C"));
+		assertEquals(API, graph.getNode("Api"));
+		assertEquals("Api", graph.getName(API));
+		assertFalse(graph.isInterface(E));
+		assertTrue(graph.isInterface(API));
+		assertEquals(-1, graph.getNode("Ext"));
+		assertEquals(-1, graph.getNode(null));
+	}
+
+	public void testModelWinsANameSharedWithAnInterface() {
+		RelationGraph shared = new RelationGraph(Arrays.asList(model("Pet")), Arrays.asList(api("Pet")),
+				Collections.<ClassRelation>emptyList());
+
+		assertEquals(2, shared.getNodeCount());
+		assertEquals(0, shared.getNode("Pet"));
+	}
+
+	public void testReachIsBreadthFirstAndSkipsUndefinedTypes() {
+		assertArrayEquals(new int[] { API, A, B, C, D }, graph.reach(API, -1));
+		assertArrayEquals(new int[] { API, A }, graph.reach(API, 2));
+		assertArrayEquals(new int[0], graph.reach(API, 0));
+		assertArrayEquals(new int[] { D }, graph.reach(D, -1));
+		assertArrayEquals(new int[] { E }, graph.reach(E, -1));
+	}
+
+	public void testDistancesCountEdgesOfTheShortestPath() {
+		assertArrayEquals(new int[] { 1, 2, 3, 4, -1, 0 }, graph.getDistances(API));
+		assertArrayEquals(new int[] { 1, 2, 0, 1, -1, -1 }, graph.getDistances(C));
+	}
+
+	public void testComponentsFollowRelationsInEitherDirection() {
+		List<int[]> components = graph.getComponents();
+
+		assertEquals(2, components.size());
+		assertArrayEquals(new int[] { A, B, C, API, D }, components.get(0));
+		assertArrayEquals(new int[] { E }, components.get(1));
+	}
+
+	public void testComponentsIgnoreExcludedNodes() {
+		boolean[] included = { true, true, false, true, true, true };
+		List<int[]> components = graph.getComponents(included);
+
+		assertEquals(3, components.size());
+		assertArrayEquals(new int[] { A, B, API }, components.get(0));
+		assertArrayEquals(new int[] { D }, components.get(1));
+		assertArrayEquals(new int[] { E }, components.get(2));
+	}
+
+	public void testStronglyConnectedComponentsFollowTheirTargets() {
+		List<int[]> components = graph.getStronglyConnectedComponents();
+
+		assertEquals(4, components.size());
+		assertArrayEquals(new int[] { D }, components.get(0));
+		assertArrayEquals(new int[] { A, B, C }, components.get(1));
+		assertArrayEquals(new int[] { E }, components.get(2));
+		assertArrayEquals(new int[] { API }, components.get(3));
+	}
+
+	public void testCyclesIncludeSelfRelations() {
+		List<int[]> cycles = graph.getCycles();
+
+		assertEquals(2, cycles.size());
+		assertArrayEquals(new int[] { D }, cycles.get(0));
+		assertArrayEquals(new int[] { A, B, C }, cycles.get(1));
+	}
+
+	public void testStronglyConnectedComponentsOfALongChain() {
+		int length = 20000;
+		List<ClassDiagram> classDiagrams = new ArrayList<ClassDiagram>(length);
+		List<ClassRelation> relations = new ArrayList<ClassRelation>(length);
+
+		for (int i = 0; i < length; i++) {
+			classDiagrams.add(model("M" + i));
+			relations.add(relation("M" + i, "M" + ((i + 1) % length)));
+		}
+
+		RelationGraph chain = new RelationGraph(classDiagrams, Collections.<InterfaceDiagram>emptyList(),
+				relations.subList(0, length - 1));
+		List<int[]> components = chain.getStronglyConnectedComponents();
+		assertEquals(length, components.size());
+		assertArrayEquals(new int[] { length - 1 }, components.get(0));
+		assertTrue(chain.getCycles().isEmpty());
+
+		RelationGraph ring = new RelationGraph(classDiagrams, Collections.<InterfaceDiagram>emptyList(), relations);
+		assertEquals(1, ring.getCycles().size());
+		assertEquals(length, ring.getCycles().get(0).length);
+		assertEquals(length - 1, ring.getDistances(0)[length - 1]);
+	}
+
+	public void testDegreesCountEdgesOnly() {
+		assertEquals(1, graph.getOutDegree(A));
+		assertEquals(2, graph.getInDegree(A));
+		assertEquals(2, graph.getOutDegree(C));
+		assertEquals(2, graph.getInDegree(D));
+		assertEquals(0, graph.getInDegree(API));
+
+		RelationGraph.DegreeStats stats = graph.getDegreeStats();
+		assertEquals(2, stats.getMaxInDegree());
+		assertEquals(A, stats.getMaxInDegreeNode());
+		assertEquals(2, stats.getMaxOutDegree());
+		assertEquals(C, stats.getMaxOutDegreeNode());
+		assertEquals(1, stats.getIsolatedNodes());
+		assertEquals(1d, stats.getAverageDegree(), 0d);
+	}
+
+	public void testEmptyGraph() {
+		RelationGraph empty = new RelationGraph(Collections.<ClassDiagram>emptyList(),
+				Collections.<InterfaceDiagram>emptyList(), Collections.<ClassRelation>emptyList());
+
+		assertEquals(0, empty.getNodeCount());
+		assertTrue(empty.getComponents().isEmpty());
+		assertTrue(empty.getStronglyConnectedComponents().isEmpty());
+		assertEquals(-1, empty.getDegreeStats().getMaxInDegreeNode());
+		assertEquals(0d, empty.getDegreeStats().getAverageDegree(), 0d);
+	}
+
+	private static void assertArrayEquals(int[] expected, int[] actual) {
+		assertEquals(Arrays.toString(expected), Arrays.toString(actual));
+	}
+}
@@ -0,0 +1,74 @@
+package com.kicksolutions.swagger.plantuml;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.kicksolutions.swagger.plantuml.vo.Cardinality;
+import com.kicksolutions.swagger.plantuml.vo.ClassRelation;
+import com.kicksolutions.swagger.plantuml.vo.RelationKind;
+
+import junit.framework.TestCase;
+
+/**
+ * 
+ * @author MSANTOSH
+ *
+ */
+public class RelationIndexTest extends TestCase {
+
+	public void testKeepsFirstRelationInInsertionOrder() {
+		ClassRelation petToTag = composition("Pet", "Tag", Cardinality.ONE_TO_MANY);
+		ClassRelation petToCategory = composition("Pet", "Category", Cardinality.NONE_TO_ONE);
+		ClassRelation petToTagAgain = composition("pet", "TAG", Cardinality.ONE_TO_ONE);
+		ClassRelation orderToTag = composition("Order", "Tag", Cardinality.ONE_TO_ONE);
+
+		RelationIndex index = new RelationIndex(false);
+
+		assertTrue(index.add(petToTag));
+		assertTrue(index.add(petToCategory));
+		assertFalse(index.add(petToTagAgain));
+		assertTrue(index.add(orderToTag));
+
+		assertEquals(Arrays.asList(petToTag, petToCategory, orderToTag), index.getRelations());
+		assertSame(Cardinality.ONE_TO_MANY, index.getRelations().get(0).getCardinality());
+	}
+
+	public void testCompareTargetOnly() {
+		ClassRelation petToTag = composition("Pet", "Tag", Cardinality.ONE_TO_MANY);
+		ClassRelation orderToTag = composition("Order", "tag", Cardinality.ONE_TO_ONE);
+		ClassRelation petToCategory = composition("Pet", "Category", null);
+
+		List<ClassRelation> relations = new RelationIndex(true, 3)
+				.addAll(Arrays.asList(petToTag, orderToTag, petToCategory)).getRelations();
+
+		assertEquals(Arrays.asList(petToTag, petToCategory), relations);
+	}
+
+	public void testRelationsWithEmptyEndpointsAreAlwaysKept() {
+		ClassRelation noTarget = composition("Pet", "", null);
+		ClassRelation noSource = composition(null, "Tag", null);
+
+		RelationIndex index = new RelationIndex(false);
+
+		assertTrue(index.add(noTarget));
+		assertTrue(index.add(noTarget));
+		assertTrue(index.add(noSource));
+		assertTrue(index.add(noSource));
+		assertEquals(4, index.size());
+	}
+
+	public void testNormalizeMatchesEqualsIgnoreCase() {
+		String plain = "pet_tag1";
+
+		assertSame(plain, RelationIndex.normalize(plain));
+		assertEquals("pettag", RelationIndex.normalize("PetTag"));
+		// dotless i and dotted capital I fold to the same character as i and I
+		assertTrue("\u0131".equalsIgnoreCase("i"));
+		assertEquals(RelationIndex.normalize("i"), RelationIndex.normalize("\u0131"));
+		assertEquals(RelationIndex.normalize("I"), RelationIndex.normalize("\u0130"));
+	}
+
+	private static ClassRelation composition(String source, String target, Cardinality cardinality) {
+		return new ClassRelation(source, target, RelationKind.COMPOSITION, cardinality);
+	}
+}